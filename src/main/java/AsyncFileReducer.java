@@ -0,0 +1,291 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+
+/**
+ * 여러 파일을 AsynchronousFileChannel 로 동시에 읽으면서 CRC32 체크섬과 통계(합계 등)를 구한다.
+ *
+ * 고정 스레드풀에서 블로킹 read 를 하면 대부분의 스레드가 I/O 를 기다리며 놀게 된다.
+ * 여기서는 파일마다 스레드를 두지 않고 read 를 걸어둔 뒤 CompletionHandler 콜백에서 이어서 처리하고,
+ * 읽어온 청크의 계산은 StatisticsTask 로 ForkJoinPool 에 맡기고 기다리지 않고 바로 다음 read 를 건다.
+ * 그래서 한 파일 안에서도 청크 N 을 계산하는 동안 청크 N+1 을 읽는다.
+ *
+ * 버퍼는 미리 만들어둔 direct ByteBuffer 를 돌려쓰며, 버퍼 수(maxInFlight)가 동시에 읽는 파일 수의 상한이다.
+ * 파일 내용은 big-endian int32 의 나열로 보고 통계를 낸다. 4바이트가 안되는 꼬리는 체크섬에만 포함된다.
+ */
+public class AsyncFileReducer {
+
+    private final ArrayBlockingQueue<Slot> slots;
+    private final Queue<FileRead> pending = new ConcurrentLinkedQueue<>();
+
+    public AsyncFileReducer(int maxInFlight, int chunkSize) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        if (chunkSize < 4 || chunkSize % 4 != 0) {
+            throw new IllegalArgumentException("chunkSize must be a positive multiple of 4: " + chunkSize);
+        }
+        slots = new ArrayBlockingQueue<>(maxInFlight);
+        for (int i = 0; i < maxInFlight; i++) {
+            slots.add(new Slot(chunkSize));
+        }
+    }
+
+    public CompletableFuture<FileDigest> submit(Path file) {
+        FileRead read = new FileRead(Objects.requireNonNull(file));
+        pending.offer(read);
+        drain();
+        return read.result;
+    }
+
+    // CallbackFutureTask 처럼 성공/실패 콜백으로 결과를 받는다.
+    public void submit(Path file, SuccessCallback<FileDigest> successCallback, ExceptionalCallback exceptionalCallback) {
+        Objects.requireNonNull(successCallback);
+        Objects.requireNonNull(exceptionalCallback);
+        submit(file).whenComplete((digest, t) -> {
+            if (t != null) {
+                exceptionalCallback.onError(t);
+            } else {
+                successCallback.onSuccess(digest);
+            }
+        });
+    }
+
+    // 모든 파일의 통계를 합친다. 하나라도 실패하면 예외로 완료된다.
+    public CompletableFuture<Statistics> reduceAll(Collection<Path> files) {
+        List<CompletableFuture<FileDigest>> futures = new ArrayList<>(files.size());
+        for (Path file : files) {
+            futures.add(submit(file));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    Statistics total = Statistics.empty();
+                    for (CompletableFuture<FileDigest> f : futures) {
+                        total = total.combine(f.join().getStatistics());
+                    }
+                    return total;
+                });
+    }
+
+    /**
+     * 버퍼가 남아있는 만큼 대기 중인 파일을 시작한다.
+     * 대기열에 넣은 뒤와 버퍼를 반납한 뒤 모두 호출하므로, 둘이 엇갈려도 파일이 대기열에 남겨지지 않는다.
+     * 열지 못한 파일은 release 를 거치지 않고 여기서 같은 버퍼로 다음 파일을 시작한다.
+     * (실패할 때마다 release -> drain 으로 다시 들어가면 실패한 파일 수만큼 스택이 깊어진다)
+     */
+    private void drain() {
+        while (!pending.isEmpty()) {
+            Slot slot = slots.poll();
+            if (slot == null) {
+                return;
+            }
+            FileRead read;
+            do {
+                read = pending.poll();
+            } while (read != null && !read.start(slot));
+            if (read == null) {
+                slots.offer(slot);
+            }
+        }
+    }
+
+    private void release(Slot slot) {
+        slots.offer(slot);
+        drain();
+    }
+
+    /**
+     * read 버퍼 하나와 int 배열 두 개, 한 배열을 ForkJoinPool 이 계산하는 동안 다른 배열에 다음 청크를 옮겨 담는다.
+     */
+    private static final class Slot {
+        final ByteBuffer buffer;
+        int[] ints;
+        int[] spare;
+
+        Slot(int chunkSize) {
+            buffer = ByteBuffer.allocateDirect(chunkSize);
+            ints = new int[chunkSize / 4];
+            spare = new int[chunkSize / 4];
+        }
+
+        void swap() {
+            int[] t = ints;
+            ints = spare;
+            spare = t;
+        }
+    }
+
+    /**
+     * 파일 하나를 끝까지 읽는 상태, read 가 끝날 때마다 completed 가 호출되고 다음 read 를 건다.
+     * 한 파일의 read 는 항상 하나만 걸려 있으므로 필드는 콜백들 사이에서 순서대로만 접근된다.
+     * 계산도 파일마다 하나만 떠 있게 해서, 다음 청크를 넘기기 전에 이전 청크의 결과를 합친다. (보통 read 보다 먼저 끝나 있다)
+     */
+    private final class FileRead implements CompletionHandler<Integer, Void> {
+        final CompletableFuture<FileDigest> result = new CompletableFuture<>();
+        private final Path path;
+        private final CRC32 crc = new CRC32();
+        private Slot slot;
+        private AsynchronousFileChannel channel;
+        private long position;
+        private Statistics statistics = Statistics.empty();
+        private ForkJoinTask<Statistics> reducing; // slot.spare 를 계산 중인 작업
+
+        FileRead(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * 파일을 열고 첫 read 를 건다. 시작하지 못하면 결과를 실패로 완료하고 false 를 리턴하며, 버퍼는 호출한 쪽이 계속 쓴다.
+         */
+        boolean start(Slot slot) {
+            slot.buffer.clear();
+            try {
+                channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+                return false;
+            }
+            this.slot = slot;
+            try {
+                channel.read(slot.buffer, position, null, this);
+            } catch (RuntimeException e) {
+                this.slot = null;
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                result.completeExceptionally(e);
+                return false;
+            }
+            return true;
+        }
+
+        private void read() {
+            try {
+                channel.read(slot.buffer, position, null, this);
+            } catch (RuntimeException e) {
+                finish(e);
+            }
+        }
+
+        @Override
+        public void completed(Integer n, Void attachment) {
+            if (n < 0) { // EOF
+                finish(null);
+                return;
+            }
+            try {
+                ByteBuffer buffer = slot.buffer;
+                position += n;
+
+                // 이번에 새로 읽은 바이트만 체크섬에 넣는다. (앞쪽에는 지난번에 남은 4바이트 미만의 꼬리가 있을 수 있다)
+                ByteBuffer fresh = buffer.duplicate();
+                fresh.flip();
+                fresh.position(fresh.limit() - n);
+                crc.update(fresh);
+
+                buffer.flip();
+                int count = buffer.remaining() / 4;
+                buffer.asIntBuffer().get(slot.ints, 0, count);
+                buffer.position(count * 4);
+                buffer.compact(); // 남은 꼬리를 앞으로 당기고 이어서 읽는다.
+
+                // 이전 청크의 결과를 합친 뒤 이번 청크를 넘기고, 계산을 기다리지 않고 다음 read 를 건다.
+                joinReduction();
+                reducing = ForkJoinPool.commonPool().submit(new StatisticsTask(slot.ints, 0, count));
+                slot.swap();
+            } catch (RuntimeException e) {
+                finish(e);
+                return;
+            }
+            read();
+        }
+
+        @Override
+        public void failed(Throwable exc, Void attachment) {
+            finish(exc);
+        }
+
+        private void joinReduction() {
+            if (reducing != null) {
+                ForkJoinTask<Statistics> task = reducing;
+                reducing = null;
+                statistics = statistics.combine(task.join());
+            }
+        }
+
+        private void finish(Throwable error) {
+            try {
+                joinReduction(); // 계산이 끝나야 배열을 다른 파일에 넘길 수 있다.
+            } catch (RuntimeException e) {
+                if (error == null) error = e;
+            }
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    if (error == null) error = e;
+                }
+            }
+            Slot s = slot;
+            slot = null;
+            // 결과를 먼저 알리고 버퍼를 반납한다. 반납하면 이 스레드에서 다음 파일들을 여는데, 그것을 기다리게 할 필요는 없다.
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(new FileDigest(path, position, crc.getValue(), statistics));
+            }
+            release(s);
+        }
+    }
+
+    public static final class FileDigest {
+        private final Path path;
+        private final long size;
+        private final long crc32;
+        private final Statistics statistics;
+
+        FileDigest(Path path, long size, long crc32, Statistics statistics) {
+            this.path = path;
+            this.size = size;
+            this.crc32 = crc32;
+            this.statistics = statistics;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getCrc32() {
+            return crc32;
+        }
+
+        public Statistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public String toString() {
+            return "FileDigest{path=" + path + ", size=" + size + ", crc32=" + Long.toHexString(crc32) + ", " + statistics + "}";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 마감 시각이 가장 이른 작업부터 실행하는(EDF, earliest-deadline-first) 스레드풀
+ *
+ * Executors 가 만드는 스레드풀은 모두 FIFO 라서, 과부하 상황에서는 클라이언트가 이미 포기한 요청도 순서대로 워커를 차지한다.
+ * 여기서는 마감이 지난 작업은 실행하지 않고 TimeoutException 으로 바로 실패시켜서 쓸모없는 일을 버린다.
+ *
+ * 대기열은 락 하나로 보호하는 힙(PriorityBlockingQueue) 대신 ConcurrentSkipListSet 을 써서
+ * 여러 스레드가 동시에 넣고 꺼내도 하나의 락에 몰리지 않는다.
+ * 마감 시각은 System.nanoTime 기준이며, 마감이 같으면 먼저 제출한 작업이 먼저 실행된다.
+ */
+public class DeadlineExecutor implements AutoCloseable {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final ConcurrentSkipListSet<DeadlineTask<?>> queue = new ConcurrentSkipListSet<>(
+            Comparator.<DeadlineTask<?>>comparingLong(t -> t.deadlineNanos).thenComparingLong(t -> t.sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private final Semaphore available = new Semaphore(0); // 대기열의 작업 수 + 종료 신호
+    private final LongAdder expired = new LongAdder();
+    private final Thread[] workers;
+    private volatile boolean shutdown;
+
+    public DeadlineExecutor(int workers) {
+        this(workers, Executors.defaultThreadFactory());
+    }
+
+    public DeadlineExecutor(int workers, ThreadFactory threadFactory) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        this.workers = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            this.workers[i] = threadFactory.newThread(this::work);
+            this.workers[i].start();
+        }
+    }
+
+    // 지금부터 timeout 안에 시작하지 못하면 버린다.
+    public <T> CompletableFuture<T> submit(Callable<T> task, Duration timeout) {
+        long now = System.nanoTime();
+        long nanos;
+        try {
+            nanos = timeout.isNegative() ? 0 : timeout.toNanos();
+        } catch (ArithmeticException e) {
+            nanos = Long.MAX_VALUE;
+        }
+        long deadline = now + nanos;
+        if (deadline < now || deadline == NO_DEADLINE) {
+            // 아주 긴 timeout 은 더하면 음수로 넘어가 가장 앞에 정렬되므로 마감 없는 작업 바로 앞으로 자른다.
+            deadline = NO_DEADLINE - 1;
+        }
+        return submitWithDeadline(task, deadline);
+    }
+
+    // 마감이 없는 작업, 마감이 있는 작업들이 모두 실행된 뒤에 실행된다.
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return submitWithDeadline(task, NO_DEADLINE);
+    }
+
+    public <T> CompletableFuture<T> submitWithDeadline(Callable<T> task, long deadlineNanos) {
+        Objects.requireNonNull(task);
+        if (shutdown) {
+            throw new RejectedExecutionException("executor has been shut down");
+        }
+        DeadlineTask<T> t = new DeadlineTask<>(task, deadlineNanos, sequence.getAndIncrement());
+        if (t.isExpired(System.nanoTime())) { // 이미 늦었으면 대기열에 넣지도 않는다.
+            expire(t);
+            return t.future;
+        }
+        queue.add(t);
+        if (shutdown && queue.remove(t)) { // 넣는 사이 종료되었다면 워커가 이미 빠져나갔을 수 있다.
+            throw new RejectedExecutionException("executor has been shut down");
+        }
+        available.release();
+        return t.future;
+    }
+
+    private void work() {
+        for (;;) {
+            try {
+                available.acquire();
+            } catch (InterruptedException e) {
+                // 종료는 인터럽트가 아니라 permit 으로 알리므로, 그 밖의 인터럽트로 워커를 잃지 않도록 계속 돈다.
+                if (shutdown) {
+                    return;
+                }
+                continue;
+            }
+            DeadlineTask<?> task = queue.pollFirst();
+            if (task == null) {
+                if (shutdown) {
+                    return;
+                }
+                continue;
+            }
+            if (task.future.isDone()) { // 취소된 작업
+                continue;
+            }
+            if (task.isExpired(System.nanoTime())) {
+                expire(task);
+                continue;
+            }
+            task.run();
+            Thread.interrupted(); // 작업이 남긴 인터럽트 상태가 다음 작업에 넘어가지 않게 지운다.
+        }
+    }
+
+    private void expire(DeadlineTask<?> task) {
+        expired.increment();
+        task.future.completeExceptionally(new TimeoutException("deadline exceeded before start"));
+    }
+
+    /**
+     * 새 작업은 받지 않고, 대기열에 남은 작업은 처리한 뒤 워커가 종료된다.
+     */
+    public void shutdown() {
+        shutdown = true;
+        available.release(workers.length);
+    }
+
+    /**
+     * shutdown 하고 워커가 모두 끝날 때까지 기다린다.
+     * ExecutorService#close 처럼 기다리는 동안 인터럽트되어도 예외를 던지지 않고 끝까지 기다린 뒤 인터럽트 상태를 되살린다.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 마감이 지나 실행하지 않고 버린 작업 수
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private static final class DeadlineTask<T> {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Callable<T> callable;
+        final long deadlineNanos;
+        final long sequence;
+
+        DeadlineTask(Callable<T> callable, long deadlineNanos, long sequence) {
+            this.callable = callable;
+            this.deadlineNanos = deadlineNanos;
+            this.sequence = sequence;
+        }
+
+        boolean isExpired(long now) {
+            return deadlineNanos != NO_DEADLINE && now - deadlineNanos > 0;
+        }
+
+        void run() {
+            try {
+                future.complete(callable.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+}
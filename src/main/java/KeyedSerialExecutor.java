@@ -0,0 +1,150 @@
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 같은 키의 작업은 제출한 순서대로 하나씩 실행하고, 다른 키의 작업은 공용 스레드풀에서 병렬로 실행한다.
+ *
+ * 키(ex. 계좌)마다 newSingleThreadExecutor 를 두면 키 수만큼 스레드가 필요하고 샤드 간 부하가 치우친다.
+ * 여기서는 키마다 스레드 대신 락 없는 메일박스를 두고, 메일박스에 작업이 있을 때만 공용 스레드풀에 drain 작업을 맡긴다.
+ * 메일박스는 작업이 들어올 때 만들어지고 비면 map 에서 제거된다.
+ *
+ * 스레드풀이 drain 작업을 거절하면 execute 는 RejectedExecutionException 을 던지고 넣었던 작업을 되돌린다.
+ * 이어서 처리하려고 다시 제출한 drain 이 거절되면 남은 작업은 지금 스레드에서 이어서 처리한다.
+ */
+public class KeyedSerialExecutor<K> {
+
+    // 한 번에 처리할 최대 작업 수, 이보다 많으면 다시 스레드풀에 제출해서 다른 키에게 양보한다.
+    private static final int MAX_BATCH = 64;
+
+    private final Executor executor;
+    private final ConcurrentHashMap<K, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public void execute(K key, Runnable task) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(task);
+        for (;;) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(key, Mailbox::new);
+            if (mailbox.offer(task)) {
+                return;
+            }
+            // 막 닫힌 메일박스를 잡았다. 제거를 돕고 새 메일박스로 다시 시도한다.
+            mailboxes.remove(key, mailbox);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(K key, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(key, () -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    // 현재 작업이 남아있는 키의 수
+    public int activeKeys() {
+        return mailboxes.size();
+    }
+
+    private final class Mailbox implements Runnable {
+        private static final int CLOSED = -1;
+
+        private final K key;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        // 큐에 있거나 실행 중인 작업 수, CLOSED 이면 map 에서 제거되는 중이라 더 이상 받지 않는다.
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Mailbox(K key) {
+            this.key = key;
+        }
+
+        boolean offer(Runnable task) {
+            for (;;) {
+                int n = pending.get();
+                if (n == CLOSED) {
+                    return false;
+                }
+                if (pending.compareAndSet(n, n + 1)) {
+                    queue.offer(task);
+                    if (n == 0) { // 0 -> 1 로 만든 스레드만 drain 을 예약하므로 drain 은 항상 하나뿐이다.
+                        try {
+                            executor.execute(this);
+                        } catch (RejectedExecutionException e) {
+                            rollback(task);
+                            throw e;
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * drain 예약이 거절되면 drain 을 맡을 스레드가 없으므로 넣은 작업을 되돌린다.
+         * 그 사이 들어온 다른 작업들은 drain 이 있다고 보고 돌아갔으므로 지금 스레드에서 처리한다.
+         */
+        private void rollback(Runnable task) {
+            queue.remove(task); // drain 이 없으니 아직 큐에 있다.
+            if (pending.decrementAndGet() == 0) {
+                close();
+            } else {
+                run();
+            }
+        }
+
+        @Override
+        public void run() {
+            for (;;) {
+                for (int i = 0; i < MAX_BATCH; i++) {
+                    Runnable task = poll();
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        Thread current = Thread.currentThread();
+                        current.getUncaughtExceptionHandler().uncaughtException(current, t);
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        close();
+                        return;
+                    }
+                }
+                try {
+                    executor.execute(this); // 남은 작업은 다른 키에게 양보한 뒤 이어서 처리한다.
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // 다시 제출하지 못하면 키가 멈추지 않도록 이 스레드에서 이어서 처리한다.
+                }
+            }
+        }
+
+        private void close() {
+            // 실패하면 그 사이 다른 스레드가 0 -> 1 로 만들고 새 drain 을 예약한 것이다.
+            if (pending.compareAndSet(0, CLOSED)) {
+                mailboxes.remove(key, this);
+            }
+        }
+
+        private Runnable poll() {
+            Runnable task;
+            // pending 을 올린 직후 queue.offer 하기 전이면 잠깐 비어있을 수 있다.
+            while ((task = queue.poll()) == null) {
+                Thread.onSpinWait();
+            }
+            return task;
+        }
+    }
+}
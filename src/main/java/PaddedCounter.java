@@ -0,0 +1,57 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 앞뒤를 long 필드로 채워서 다른 변수와 같은 캐시 라인에 놓이지 않는 int 카운터
+ *
+ * JVM 은 한 클래스 안의 필드 순서를 마음대로 바꾸므로 패딩과 값을 상속 계층으로 나눠서 값의 앞뒤에 패딩이 오게 한다. (false sharing 방지)
+ * 다만 JDK 15 부터는 상위 클래스 필드 사이에 남은 빈 자리에 하위 클래스 필드를 채워 넣는다.
+ * compressed class pointer 를 쓰면 객체 헤더가 12바이트라 long 패딩 앞에 4바이트 빈 자리가 생기고,
+ * 그대로 두면 value 가 그 자리(offset 12)에 들어가 앞쪽 패딩이 없어진다. 그래서 앞쪽 패딩에 int 를 하나 더 두어 그 자리를 막는다.
+ * 배치는 JVM 마다 다를 수 있으므로 바꿀 때는 JOL(ClassLayout.parseClass(PaddedCounter.class).toPrintable()) 로 직접 확인한다.
+ */
+public final class PaddedCounter extends PaddedCounterRhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedCounterValue.class, "value", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public PaddedCounter(int initialValue) {
+        value = initialValue;
+    }
+
+    public int get() {
+        return value;
+    }
+
+    public void set(int newValue) {
+        value = newValue;
+    }
+
+    public boolean compareAndSet(int expected, int newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+
+    public int decrementAndGet() {
+        return (int) VALUE.getAndAdd(this, -1) - 1;
+    }
+}
+
+abstract class PaddedCounterLhsPadding {
+    int p00; // 헤더 뒤 4바이트 빈 자리를 막는다.
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class PaddedCounterValue extends PaddedCounterLhsPadding {
+    volatile int value;
+}
+
+abstract class PaddedCounterRhsPadding extends PaddedCounterValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
@@ -0,0 +1,312 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * java.util.concurrent.Flow 기반의 다단계 파이프라인 (ex. parse -> transform -> aggregate)
+ *
+ * ArrayBlockingQueue 와 queue.take() 루프로 생산자와 소비자를 직접 잇는 대신,
+ * 단계마다 Flow.Subscription#request 로 받을 수 있는 만큼만 요청(demand)하므로 버퍼가 무한히 쌓이지 않는다.
+ *
+ * mapAsync 는 병렬도와 버퍼 크기를 가진 비동기 단계를 만들고,
+ * map 은 바로 앞 단계에 함수를 합쳐서(operator fusion) 단계 사이의 큐와 스레드 전환을 없앤다.
+ * 함수가 null 을 리턴하면 그 아이템은 버린다. (Flow 는 null 아이템을 허용하지 않는다)
+ *
+ * 단계는 executor 안에서 permit 이나 다음 단계의 버퍼를 기다리며 블로킹할 수 있으니 가상 스레드 executor 를 쓰는 것이 좋다.
+ * 파이프라인은 한 번만 실행한다.
+ */
+public class Pipeline<T> {
+
+    private final Flow.Publisher<?> source;
+    private final Executor executor;
+    private final List<StageSpec> stages;
+    private volatile List<StageMetrics> metrics = Collections.emptyList();
+
+    private Pipeline(Flow.Publisher<?> source, Executor executor, List<StageSpec> stages) {
+        this.source = source;
+        this.executor = executor;
+        this.stages = stages;
+    }
+
+    public static <T> Pipeline<T> from(Flow.Publisher<T> source, Executor executor) {
+        return new Pipeline<>(Objects.requireNonNull(source), Objects.requireNonNull(executor), List.of());
+    }
+
+    /**
+     * 동기 단계, 앞 단계와 같은 스레드에서 이어서 실행된다.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> map(String name, Function<? super T, ? extends R> fn) {
+        Function<Object, Object> f = (Function<Object, Object>) Objects.requireNonNull(fn);
+        if (stages.isEmpty()) {
+            return mapAsync(name, fn, 1, Flow.defaultBufferSize());
+        }
+        List<StageSpec> next = new ArrayList<>(stages);
+        StageSpec last = next.remove(next.size() - 1);
+        Function<Object, Object> fused = x -> {
+            Object y = last.fn.apply(x);
+            return y == null ? null : f.apply(y);
+        };
+        next.add(new StageSpec(last.name + "+" + name, fused, last.parallelism, last.bufferSize));
+        return new Pipeline<>(source, executor, next);
+    }
+
+    /**
+     * 비동기 단계, 최대 parallelism 개의 아이템을 동시에 처리하고 다음 단계로 넘길 아이템을 최대 bufferSize 개까지 버퍼링한다.
+     * parallelism 이 1 보다 크면 아이템 순서는 보장하지 않는다.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> mapAsync(String name, Function<? super T, ? extends R> fn, int parallelism, int bufferSize) {
+        if (parallelism < 1 || bufferSize < 1) {
+            throw new IllegalArgumentException("parallelism and bufferSize must be positive");
+        }
+        List<StageSpec> next = new ArrayList<>(stages);
+        next.add(new StageSpec(Objects.requireNonNull(name), (Function<Object, Object>) Objects.requireNonNull(fn), parallelism, bufferSize));
+        return new Pipeline<>(source, executor, next);
+    }
+
+    /**
+     * 마지막 단계의 결과를 하나의 스레드에서 차례대로 누적한다. accumulator 는 스레드 세이프하지 않아도 된다.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> reduce(R identity, BiFunction<R, ? super T, R> accumulator, int bufferSize) {
+        List<StageMetrics> runMetrics = new ArrayList<>();
+        Flow.Publisher<Object> upstream = (Flow.Publisher<Object>) source;
+        for (StageSpec spec : stages) {
+            StageMetrics m = new StageMetrics(spec.name);
+            runMetrics.add(m);
+            StageProcessor stage = new StageProcessor(spec, m, executor);
+            upstream.subscribe(stage);
+            upstream = stage;
+        }
+        StageMetrics m = new StageMetrics("reduce");
+        runMetrics.add(m);
+        metrics = Collections.unmodifiableList(runMetrics);
+
+        ReduceSubscriber<R> terminal = new ReduceSubscriber<>(identity, (BiFunction<R, Object, R>) accumulator, bufferSize, m);
+        upstream.subscribe(terminal);
+        return terminal.result;
+    }
+
+    public <R> CompletableFuture<R> reduce(R identity, BiFunction<R, ? super T, R> accumulator) {
+        return reduce(identity, accumulator, Flow.defaultBufferSize());
+    }
+
+    // 마지막 실행의 단계별 처리량
+    public List<StageMetrics> metrics() {
+        return metrics;
+    }
+
+    private static final class StageSpec {
+        final String name;
+        final Function<Object, Object> fn;
+        final int parallelism;
+        final int bufferSize;
+
+        StageSpec(String name, Function<Object, Object> fn, int parallelism, int bufferSize) {
+            this.name = name;
+            this.fn = fn;
+            this.parallelism = parallelism;
+            this.bufferSize = bufferSize;
+        }
+    }
+
+    /**
+     * 위에서 bufferSize 만큼 요청해두고 하나 처리할 때마다 하나씩 더 요청한다.
+     * 결과는 SubmissionPublisher 로 내보내며, 다음 단계의 버퍼가 가득 차면 submit 에서 기다린다. (backpressure)
+     */
+    private static final class StageProcessor implements Flow.Processor<Object, Object> {
+        private final StageSpec spec;
+        private final StageMetrics metrics;
+        private final Executor executor;
+        private final Semaphore permits;
+        private final SubmissionPublisher<Object> out;
+        private volatile Flow.Subscription upstream;
+
+        StageProcessor(StageSpec spec, StageMetrics metrics, Executor executor) {
+            this.spec = spec;
+            this.metrics = metrics;
+            this.executor = executor;
+            this.permits = new Semaphore(spec.parallelism);
+            this.out = new SubmissionPublisher<>(executor, spec.bufferSize);
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Object> subscriber) {
+            out.subscribe(subscriber);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            subscription.request(spec.bufferSize);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            if (spec.parallelism == 1) { // 병렬도가 1이면 아이템을 넘겨준 스레드에서 바로 처리한다.
+                process(item);
+                return;
+            }
+            try {
+                permits.acquire(); // 병렬도만큼 처리 중이면 여기서 기다린다.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        process(item);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                fail(e);
+            }
+        }
+
+        private void process(Object item) {
+            try {
+                Object result = spec.fn.apply(item);
+                metrics.record();
+                if (result != null) {
+                    out.submit(result);
+                }
+            } catch (Throwable t) {
+                fail(t);
+            } finally {
+                upstream.request(1);
+            }
+        }
+
+        private void fail(Throwable t) {
+            upstream.cancel();
+            out.closeExceptionally(t);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            out.closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            permits.acquireUninterruptibly(spec.parallelism); // 처리 중인 아이템이 모두 끝난 뒤 닫는다.
+            metrics.complete();
+            out.close();
+        }
+    }
+
+    private static final class ReduceSubscriber<R> implements Flow.Subscriber<Object> {
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        private final BiFunction<R, Object, R> accumulator;
+        private final int bufferSize;
+        private final StageMetrics metrics;
+        private Flow.Subscription subscription;
+        private R accumulated;
+        private int consumed;
+
+        ReduceSubscriber(R identity, BiFunction<R, Object, R> accumulator, int bufferSize, StageMetrics metrics) {
+            this.accumulated = identity;
+            this.accumulator = accumulator;
+            this.bufferSize = bufferSize;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(bufferSize);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            try {
+                accumulated = accumulator.apply(accumulated, item);
+            } catch (Throwable t) {
+                subscription.cancel();
+                result.completeExceptionally(t);
+                return;
+            }
+            metrics.record();
+            // 버퍼의 절반을 소비할 때마다 한 번에 요청해서 request 호출 횟수를 줄인다.
+            if (++consumed >= Math.max(1, bufferSize / 2)) {
+                subscription.request(consumed);
+                consumed = 0;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            metrics.complete();
+            result.complete(accumulated);
+        }
+    }
+
+    /**
+     * 단계별 처리 건수와 처리량, 첫 아이템부터 단계가 끝날 때까지의 시간으로 계산한다.
+     */
+    public static final class StageMetrics {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong startNanos = new AtomicLong();
+        private volatile long endNanos;
+
+        StageMetrics(String name) {
+            this.name = name;
+        }
+
+        void record() {
+            if (startNanos.get() == 0) {
+                startNanos.compareAndSet(0, System.nanoTime());
+            }
+            count.increment();
+        }
+
+        void complete() {
+            endNanos = System.nanoTime();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        // 초당 처리 건수, 아직 끝나지 않았으면 지금까지 기준
+        public double getThroughput() {
+            long start = startNanos.get();
+            if (start == 0) {
+                return 0;
+            }
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return getCount() * 1e9 / Math.max(1, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return name + "{count=" + getCount() + ", throughput=" + String.format("%.0f", getThroughput()) + "/s}";
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 제출 속도를 RateLimiter 로 제한하는 Executor 데코레이터
+ *
+ * scheduleAtFixedRate 처럼 타이머 스레드가 주기마다 작업을 꺼내는 대신, 제출하는 스레드가 permit 을 받을 때까지 기다린다.
+ * 제출하는 쪽이 가상 스레드라면 기다리는 동안 캐리어 스레드를 점유하지 않는다.
+ * maxWait 안에 permit 을 받지 못하면 RejectedExecutionException 을 던진다.
+ */
+public class RateLimitedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final RateLimiter rateLimiter;
+    private final long maxWaitNanos;
+
+    public RateLimitedExecutor(Executor delegate, RateLimiter rateLimiter, Duration maxWait) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.rateLimiter = Objects.requireNonNull(rateLimiter);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        try {
+            if (!rateLimiter.tryAcquire(1, maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("rate limit exceeded");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for rate limit", e);
+        }
+        delegate.execute(command);
+    }
+}
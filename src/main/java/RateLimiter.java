@@ -0,0 +1,107 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * 락 없이 CAS 하나로 동작하는 토큰 버킷 rate limiter
+ *
+ * 버킷 상태를 "버킷이 다시 가득 차는 이론적 시각(TAT)" 하나의 long 으로 표현한다. (GCRA, Generic Cell Rate Algorithm)
+ * 토큰 수와 마지막 충전 시각을 따로 들고 있지 않으니 타이머 스레드 없이 AtomicLong 의 CAS 만으로 충전과 소비가 한 번에 된다.
+ *
+ * maxBurst 가 1 이면 permit 을 1/rate 간격으로 고르게 내어주고(smooth),
+ * 1 보다 크면 쉬는 동안 maxBurst 개까지 모아두었다가 한 번에 내어준다(bursty).
+ */
+public class RateLimiter {
+
+    private final long intervalNanos; // permit 하나당 시간
+    private final long burstNanos; // 버킷 크기를 시간으로 표현한 값 = intervalNanos * maxBurst
+    private final LongSupplier ticker;
+    private final AtomicLong theoreticalArrivalTime;
+
+    RateLimiter(double permitsPerSecond, int maxBurst, LongSupplier ticker) {
+        if (!(permitsPerSecond > 0) || permitsPerSecond > TimeUnit.SECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("permitsPerSecond must be in (0, 1e9]: " + permitsPerSecond);
+        }
+        if (maxBurst < 1) {
+            throw new IllegalArgumentException("maxBurst must be positive: " + maxBurst);
+        }
+        this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = Math.multiplyExact(intervalNanos, (long) maxBurst);
+        this.ticker = ticker;
+        this.theoreticalArrivalTime = new AtomicLong(ticker.getAsLong()); // 가득 찬 버킷으로 시작
+    }
+
+    // 초당 permitsPerSecond 개를 고르게 내어주는 limiter
+    public static RateLimiter create(double permitsPerSecond) {
+        return create(permitsPerSecond, 1);
+    }
+
+    // 초당 permitsPerSecond 개, 최대 maxBurst 개까지 몰아서 내어주는 limiter
+    public static RateLimiter create(double permitsPerSecond, int maxBurst) {
+        return new RateLimiter(permitsPerSecond, maxBurst, System::nanoTime);
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    // 기다리지 않는다. 지금 permit 이 없으면 바로 false
+    public boolean tryAcquire(int permits) {
+        return reserve(permits, 0) == 0;
+    }
+
+    public boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+        long waitNanos = reserve(permits, unit.toNanos(timeout));
+        if (waitNanos < 0) {
+            return false;
+        }
+        parkNanos(waitNanos);
+        return true;
+    }
+
+    public void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    public void acquire(int permits) throws InterruptedException {
+        parkNanos(reserve(permits, Long.MAX_VALUE));
+    }
+
+    /**
+     * permit 을 예약하고 그 permit 을 쓸 수 있을 때까지 기다려야 하는 시간을 리턴한다.
+     * maxWaitNanos 보다 오래 기다려야 한다면 예약하지 않고 -1 을 리턴한다.
+     */
+    private long reserve(int permits, long maxWaitNanos) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        long cost = Math.multiplyExact(intervalNanos, (long) permits);
+        for (;;) {
+            long now = ticker.getAsLong();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + cost;
+            long waitNanos = Math.max(0, newTat - burstNanos - now); // 버킷을 넘친 만큼 기다린다.
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    /**
+     * 가상 스레드에서 LockSupport.parkNanos 를 호출하면 캐리어 스레드를 붙잡지 않고 언마운트된다.
+     * 인터럽트되면 예약한 permit 은 돌려받지 않는다.
+     */
+    private void parkNanos(long waitNanos) throws InterruptedException {
+        long deadline = ticker.getAsLong() + waitNanos;
+        for (long remaining = waitNanos; remaining > 0; remaining = deadline - ticker.getAsLong()) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * RecyclableTaskPool 에서 꺼내 쓰고 실행이 끝나면 스스로 풀에 돌아가는 작업
+ *
+ * 함수와 콜백은 풀이 들고 있고 작업마다 달라지는 것은 인자 하나뿐이라, 제출할 때 람다 캡처나 FutureTask 를 만들지 않는다.
+ * 실행이 끝나면 재사용되므로 콜백에서 작업 객체를 붙잡아두면 안된다.
+ *
+ * 콜백이 던진 예외는 run() 밖으로 내보내지 않고 실행 중인 스레드의 UncaughtExceptionHandler 에 넘긴다.
+ * ThreadPoolExecutor 의 워커가 예외로 죽으면 새 스레드를 만들어야 하고, CallbackFutureTask 도 콜백 예외를 FutureTask 안에서 끝낸다.
+ */
+public final class RecyclableTask<A, T> implements Runnable {
+
+    private static final VarHandle CLAIMED;
+
+    static {
+        try {
+            CLAIMED = MethodHandles.lookup().findVarHandle(RecyclableTask.class, "claimed", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final RecyclableTaskPool<A, T> pool;
+    private A argument;
+    // 이번에 꺼낸 작업을 실행하거나 돌려받을 권리를 누가 가져갔는지, 가져간 쪽만 풀에 반환한다.
+    private volatile boolean claimed;
+
+    RecyclableTask(RecyclableTaskPool<A, T> pool) {
+        this.pool = pool;
+    }
+
+    void reset(A argument) {
+        this.argument = argument;
+        claimed = false;
+    }
+
+    // run() 과 제출 실패 처리 중 먼저 온 쪽만 true 를 받는다.
+    boolean tryClaim() {
+        return CLAIMED.compareAndSet(this, false, true);
+    }
+
+    @Override
+    public void run() {
+        if (!tryClaim()) {
+            return; // 제출이 실패한 것으로 보고 이미 풀에 돌려준 작업이다.
+        }
+        A arg = argument;
+        argument = null; // 풀에 돌아간 뒤에도 인자를 붙잡고 있지 않도록 비운다.
+        try {
+            T result;
+            try {
+                result = pool.function().call(arg);
+            } catch (Throwable t) {
+                pool.exceptionalCallback().onError(t);
+                return;
+            }
+            pool.successCallback().onSuccess(result);
+        } catch (Throwable t) {
+            Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, t);
+        } finally {
+            pool.release(this); // 콜백까지 끝난 뒤 반환해야 다른 제출과 겹치지 않는다.
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RecyclableTask 를 재사용하는 풀
+ *
+ * CallbackFutureTask 로 제출하면 작업마다 FutureTask, Callable 람다, 콜백 객체, 대기 노드가 만들어진다.
+ * 초당 수백만 건이면 이 객체들 때문에 young GC 가 잦아진다.
+ * 이 풀은 함수와 콜백을 한 번만 받아두고, 실행이 끝난 작업 객체를 free list 에 돌려받아 다시 쓴다.
+ *
+ * 작업은 제출한 스레드에서 꺼내고 워커 스레드에서 반환되므로, 스레드별 free list 대신 스레드 해시로 고른 stripe 에 나눠 담고
+ * 꺼낼 때 자기 stripe 가 비었으면 다른 stripe 를 찾아본다.
+ */
+public class RecyclableTaskPool<A, T> {
+
+    private final TaskFunction<A, T> function;
+    private final SuccessCallback<T> successCallback;
+    private final ExceptionalCallback exceptionalCallback;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final AtomicLong created = new AtomicLong();
+
+    public RecyclableTaskPool(TaskFunction<A, T> function, SuccessCallback<T> successCallback,
+                              ExceptionalCallback exceptionalCallback, int capacityPerStripe) {
+        this.function = Objects.requireNonNull(function);
+        this.successCallback = Objects.requireNonNull(successCallback);
+        this.exceptionalCallback = Objects.requireNonNull(exceptionalCallback);
+        if (capacityPerStripe < 1) {
+            throw new IllegalArgumentException("capacityPerStripe must be positive: " + capacityPerStripe);
+        }
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1); // 2의 거듭제곱
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe(capacityPerStripe);
+        }
+        mask = n - 1;
+    }
+
+    /**
+     * 인자 하나로 작업을 꺼내 executor 에 제출한다.
+     * ThreadPoolExecutor 라면 ArrayBlockingQueue 처럼 노드를 만들지 않는 큐를 써야 제출 경로 전체가 할당 없이 동작한다.
+     */
+    public void execute(Executor executor, A argument) {
+        RecyclableTask<A, T> task = acquire(argument);
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            // 예외 종류로는 실행되었는지 알 수 없다. (호출한 스레드에서 실행한 뒤 던졌을 수도 있다)
+            // run() 이 먼저 가져갔으면 그쪽에서 반환하므로, 여기서 가져간 경우에만 돌려받는다.
+            if (task.tryClaim()) {
+                task.reset(null);
+                release(task);
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public RecyclableTask<A, T> acquire(A argument) {
+        int start = Thread.currentThread().hashCode();
+        for (int i = 0; i <= mask; i++) {
+            RecyclableTask<A, T> task = (RecyclableTask<A, T>) stripes[(start + i) & mask].pop();
+            if (task != null) {
+                task.reset(argument);
+                return task;
+            }
+        }
+        created.incrementAndGet();
+        RecyclableTask<A, T> task = new RecyclableTask<>(this);
+        task.reset(argument);
+        return task;
+    }
+
+    void release(RecyclableTask<A, T> task) {
+        stripes[Thread.currentThread().hashCode() & mask].push(task); // 가득 찼으면 버려서 GC 에게 맡긴다.
+    }
+
+    // 지금까지 새로 만든 작업 객체 수, 정상 상태에서는 더 이상 늘지 않아야 한다.
+    public long createdCount() {
+        return created.get();
+    }
+
+    TaskFunction<A, T> function() {
+        return function;
+    }
+
+    SuccessCallback<T> successCallback() {
+        return successCallback;
+    }
+
+    ExceptionalCallback exceptionalCallback() {
+        return exceptionalCallback;
+    }
+
+    // 배열 기반 스택, 노드를 만들지 않는다. 대부분 경합이 없으므로 synchronized 비용은 작다.
+    private static final class Stripe {
+        private final Object[] tasks;
+        private int size;
+
+        Stripe(int capacity) {
+            tasks = new Object[capacity];
+        }
+
+        synchronized Object pop() {
+            if (size == 0) {
+                return null;
+            }
+            Object task = tasks[--size];
+            tasks[size] = null;
+            return task;
+        }
+
+        synchronized void push(Object task) {
+            if (size < tasks.length) {
+                tasks[size++] = task;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WaitStrategy 로 기다리는 방법을 고를 수 있는 CyclicBarrier
+ *
+ * 마지막으로 도착한 스레드가 카운트를 되돌리고 세대(generation)를 올리면 기다리던 스레드들이 그것을 보고 빠져나간다.
+ * 도착 카운트와 세대는 각자 PaddedCounter 에 두어, 도착하는 스레드의 CAS 가 spin 하는 스레드들이 읽는 캐시 라인을 무효화하지 않는다.
+ *
+ * CyclicBarrier 처럼 기다리던 스레드가 인터럽트되거나 timeout 이 지나면 barrier 가 broken 상태가 되고,
+ * 기다리던 다른 스레드들과 이후에 도착하는 스레드들은 BrokenBarrierException 을 받는다. reset 으로 다시 쓸 수 있다.
+ * 세대의 가장 아래 비트를 broken 표시로 써서, 세대를 넘기는 것과 broken 으로 만드는 것이 같은 값에 대한 CAS 로 경쟁한다.
+ *
+ * 카운트와 세대를 따로 갱신하므로 CyclicBarrier 와 달리 한 세대에 정확히 parties 개의 스레드만 await 해야 한다.
+ * 마지막 스레드가 카운트를 되돌린 직후 세대를 올리기 전에 남는 스레드가 도착하면, 지난 세대를 보고 새 카운트를 깎은 채
+ * 함께 통과해버려서 다음 세대가 한 스레드 모자란 상태로 넘어간다.
+ */
+public class SpinBarrier {
+
+    private static final int BROKEN = 1;
+    private static final int NEXT_GENERATION = 2;
+
+    private final int parties;
+    private final WaitStrategy waitStrategy;
+    private final PaddedCounter remaining;
+    private final PaddedCounter generation = new PaddedCounter(0);
+    private final Queue<Thread> parked = new ConcurrentLinkedQueue<>();
+
+    public SpinBarrier(int parties, WaitStrategy waitStrategy) {
+        if (parties < 1) {
+            throw new IllegalArgumentException("parties must be positive: " + parties);
+        }
+        this.parties = parties;
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+        this.remaining = new PaddedCounter(parties);
+    }
+
+    /**
+     * 모든 스레드가 도착할 때까지 기다린다.
+     * CyclicBarrier#await 처럼 도착 순서를 리턴한다. (parties - 1 이 처음, 0 이 마지막)
+     * 한 세대에 parties 개보다 많은 스레드가 호출하면 안된다. (클래스 설명 참고)
+     */
+    public int await() throws InterruptedException, BrokenBarrierException {
+        try {
+            return await(Long.MAX_VALUE);
+        } catch (TimeoutException e) {
+            throw new AssertionError(e); // deadline 이 없으면 timeout 되지 않는다.
+        }
+    }
+
+    public int await(long timeout, TimeUnit unit) throws InterruptedException, BrokenBarrierException, TimeoutException {
+        return await(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    private int await(long deadline) throws InterruptedException, BrokenBarrierException, TimeoutException {
+        int g = generation.get();
+        if ((g & BROKEN) != 0) {
+            throw new BrokenBarrierException();
+        }
+        if (Thread.interrupted()) {
+            breakBarrier(g);
+            throw new InterruptedException();
+        }
+        int index = remaining.decrementAndGet();
+        if (index == 0) {
+            remaining.set(parties); // 다음 세대가 도착하기 전에 카운트를 먼저 되돌린다.
+            if (!generation.compareAndSet(g, g + NEXT_GENERATION)) {
+                throw new BrokenBarrierException(); // 마지막 스레드가 도착하기 직전에 다른 스레드가 포기했다.
+            }
+            unparkAll();
+            return 0;
+        }
+
+        boolean registered = false;
+        int now; // 처음 본 다음 세대 값, 이후 세대가 더 넘어가도 이 값으로 정상 통과인지 판단한다.
+        for (int i = 0; (now = generation.get()) == g; i = WaitStrategy.next(i)) {
+            if (Thread.interrupted()) {
+                if (breakBarrier(g)) {
+                    throw new InterruptedException();
+                }
+                Thread.currentThread().interrupt(); // 이미 세대가 끝났으면 CyclicBarrier 처럼 인터럽트 상태만 남긴다.
+                now = generation.get();
+                break;
+            }
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                if (breakBarrier(g)) {
+                    throw new TimeoutException();
+                }
+                now = generation.get();
+                break;
+            }
+            if (waitStrategy.idle(i)) {
+                if (!registered) {
+                    parked.add(Thread.currentThread());
+                    registered = true;
+                    continue;
+                }
+                if (deadline == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, deadline - System.nanoTime());
+                }
+                registered = false;
+            }
+        }
+        if (now != g + NEXT_GENERATION) {
+            throw new BrokenBarrierException(); // 세대가 정상적으로 넘어가지 않고 broken 이 되었거나 reset 되었다.
+        }
+        return index;
+    }
+
+    public boolean isBroken() {
+        return (generation.get() & BROKEN) != 0;
+    }
+
+    /**
+     * broken 상태를 풀고 카운트를 처음으로 되돌린다. 기다리던 스레드가 있으면 BrokenBarrierException 을 받는다.
+     * 락 없이 동작하므로 CyclicBarrier#reset 과 달리 다른 스레드가 새로 도착하는 중에 호출하면 카운트가 어긋날 수 있다.
+     * reset 뒤에도 한 세대에 parties 개의 스레드만 await 해야 하는 것은 같다.
+     */
+    public void reset() {
+        int g = generation.get() & ~BROKEN;
+        breakBarrier(g);
+        remaining.set(parties);
+        generation.set(g + 2 * NEXT_GENERATION); // 정상적으로 넘어간 세대(g + NEXT_GENERATION)와 구분되게 하나 더 건너뛴다.
+    }
+
+    public int getParties() {
+        return parties;
+    }
+
+    // 세대 g 를 broken 으로 만든다. 그 사이 세대가 넘어갔으면 false 를 리턴한다.
+    private boolean breakBarrier(int g) {
+        if (generation.compareAndSet(g, g | BROKEN)) {
+            unparkAll();
+            return true;
+        }
+        return false;
+    }
+
+    private void unparkAll() {
+        Thread t;
+        while ((t = parked.poll()) != null) {
+            LockSupport.unpark(t);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WaitStrategy 로 기다리는 방법을 고를 수 있는 CountDownLatch
+ *
+ * 카운트는 PaddedCounter 로 다른 변수와 캐시 라인을 나눠 쓰지 않게 했다.
+ * SPIN_THEN_PARK 로 park 한 스레드만 대기열에 등록되므로, spin 하는 동안에는 countDown 이 대기열을 건드릴 일이 없다.
+ */
+public class SpinLatch {
+
+    private final PaddedCounter count;
+    private final WaitStrategy waitStrategy;
+    private final Queue<Thread> parked = new ConcurrentLinkedQueue<>();
+
+    public SpinLatch(int count, WaitStrategy waitStrategy) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count < 0");
+        }
+        this.count = new PaddedCounter(count);
+        this.waitStrategy = Objects.requireNonNull(waitStrategy);
+    }
+
+    public void countDown() {
+        for (;;) {
+            int c = count.get();
+            if (c == 0) {
+                return;
+            }
+            if (count.compareAndSet(c, c - 1)) {
+                if (c == 1) {
+                    unparkAll();
+                }
+                return;
+            }
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public void await() throws InterruptedException {
+        await(Long.MAX_VALUE);
+    }
+
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return await(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    private boolean await(long deadline) throws InterruptedException {
+        boolean registered = false;
+        for (int i = 0; count.get() != 0; i = WaitStrategy.next(i)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            if (waitStrategy.idle(i)) {
+                if (!registered) {
+                    // 등록한 뒤 카운트를 한 번 더 확인하고 park 해야 countDown 의 unpark 를 놓치지 않는다.
+                    parked.add(Thread.currentThread());
+                    registered = true;
+                    continue;
+                }
+                if (deadline == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, deadline - System.nanoTime());
+                }
+                registered = false; // 깨어나면 대기열에서 빠졌을 수 있으니 다시 등록한다.
+            }
+        }
+        return true;
+    }
+
+    private void unparkAll() {
+        Thread t;
+        while ((t = parked.poll()) != null) {
+            LockSupport.unpark(t);
+        }
+    }
+}
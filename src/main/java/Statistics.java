@@ -0,0 +1,112 @@
+/**
+ * StatisticsTask 의 결과 객체
+ * count, min, max, sum, mean, M2(편차 제곱합) 만 원시 타입으로 들고 있어 결과 합치기가 가볍다.
+ * int 배열의 합은 double 로는 2^53 을 넘으면 정확하지 않으므로 long 으로도 따로 들고 있는다. (getLongSum)
+ * double 배열에서 나온 결과(또는 그것과 합친 결과)는 정확한 합이 없으므로 getLongSum 이 예외를 던진다.
+ */
+public final class Statistics {
+
+    // 비어있으면 합이 정확히 0 이므로 int 쪽으로 둔다. combine 은 빈 쪽을 무시하므로 다른 결과의 종류를 바꾸지 않는다.
+    private static final Statistics EMPTY = new Statistics(0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, 0, 0, 0);
+
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double sum;
+    private final long longSum; // exactSum 일 때만 의미가 있다.
+    private final boolean exactSum; // int 배열에서만 나온 결과인지
+    private final double mean;
+    private final double m2; // 평균으로부터의 편차 제곱합, 분산 = m2 / count
+
+    // int 배열의 결과
+    Statistics(long count, double min, double max, double sum, long longSum, double mean, double m2) {
+        this(count, min, max, sum, longSum, true, mean, m2);
+    }
+
+    // double 배열의 결과
+    Statistics(long count, double min, double max, double sum, double mean, double m2) {
+        this(count, min, max, sum, 0, false, mean, m2);
+    }
+
+    private Statistics(long count, double min, double max, double sum, long longSum, boolean exactSum, double mean, double m2) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+        this.longSum = longSum;
+        this.exactSum = exactSum;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    public static Statistics empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Chan 의 병렬 결합 공식으로 두 구간의 통계를 합친다.
+     * 각 구간의 평균과 M2 만으로 전체 분산을 구할 수 있어서 원소를 다시 읽을 필요가 없다.
+     */
+    public Statistics combine(Statistics other) {
+        if (other.count == 0) return this;
+        if (count == 0) return other;
+
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        double newMean = mean + delta * other.count / n;
+        double newM2 = m2 + other.m2 + delta * delta * ((double) count * other.count / n);
+        return new Statistics(n, Math.min(min, other.min), Math.max(max, other.max), sum + other.sum,
+                longSum + other.longSum, exactSum && other.exactSum, newMean, newM2);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * int 배열의 정확한 합
+     * @throws IllegalStateException double 배열에서 나온 결과라 정확한 합이 없을 때, 이때는 getSum 을 쓴다.
+     */
+    public long getLongSum() {
+        if (!exactSum) {
+            throw new IllegalStateException("no exact sum for double input, use getSum()");
+        }
+        return longSum;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    // 모분산
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    // 표본분산
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return "Statistics{count=" + count + ", min=" + min + ", max=" + max + ", sum=" + sum
+                + ", mean=" + getMean() + ", variance=" + getVariance() + "}";
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * count, min, max, sum, mean, variance 를 한 번의 메모리 패스로 구하는 ForkJoinPool 예제
+ *
+ * Sum 으로 합을 구하고 min, max, 분산을 위해 배열을 다시 읽으면 큰 배열은 매번 메인 메모리에서 다시 올라온다.
+ * 메모리 대역폭이 병목인 데이터라면 통계를 한 번에 구하는 편이 패스 수만큼 빠르다.
+ *
+ * int 배열의 결과는 Statistics#getLongSum 으로 정확한 합을 구할 수 있다.
+ * double 배열의 결과에는 정확한 합이 없어서 getLongSum 이 IllegalStateException 을 던지므로 getSum 을 쓴다.
+ */
+public class StatisticsTask extends RecursiveTask<Statistics> {
+
+    // 구간이 L1/L2 캐시에 들어갈 정도로 작아야 구간 안의 두 번째 루프가 메모리가 아닌 캐시에서 읽는다.
+    private static final int SEQUENTIAL_THRESHOLD = 8 * 1024;
+    private final int low;
+    private final int high;
+    private final int[] ints; // int 배열이나 double 배열 중 하나만 세팅된다.
+    private final double[] doubles;
+
+    public StatisticsTask(int[] arr, int lo, int hi) {
+        this(arr, null, lo, hi);
+    }
+
+    public StatisticsTask(double[] arr, int lo, int hi) {
+        this(null, arr, lo, hi);
+    }
+
+    private StatisticsTask(int[] ints, double[] doubles, int lo, int hi) {
+        this.ints = ints;
+        this.doubles = doubles;
+        low = lo;
+        high = hi;
+    }
+
+    @Override
+    protected Statistics compute() {
+        if (high - low <= SEQUENTIAL_THRESHOLD) {
+            return ints != null ? computeInts() : computeDoubles();
+        }
+        int mid = low + (high - low) / 2;
+        StatisticsTask left = new StatisticsTask(ints, doubles, low, mid);
+        StatisticsTask right = new StatisticsTask(ints, doubles, mid, high);
+        left.fork();
+        Statistics rightAns = right.compute();
+        Statistics leftAns = left.join();
+
+        // 구간 결과는 Chan 의 공식으로 합친다. (Statistics#combine)
+        return leftAns.combine(rightAns);
+    }
+
+    /**
+     * 첫 번째 루프에서 min, max, sum 을 구하고 두 번째 루프에서 구간 평균 기준 편차 제곱합을 구한다.
+     * 두 번째 루프는 방금 읽은 구간을 캐시에서 다시 읽으므로 메모리 패스는 한 번이다.
+     * 원소마다 나눗셈이 필요한 Welford 보다 싸고, 구간 평균 기준이라 sum of squares 방식의 자릿수 손실도 없다.
+     */
+    private Statistics computeInts() {
+        int n = high - low;
+        if (n == 0) return Statistics.empty();
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        long sum = 0;
+        for (int i = low; i < high; ++i) {
+            int v = ints[i];
+            if (v < min) min = v;
+            if (v > max) max = v;
+            sum += v;
+        }
+        double mean = (double) sum / n;
+        double m2 = 0;
+        for (int i = low; i < high; ++i) {
+            double d = ints[i] - mean;
+            m2 += d * d;
+        }
+        return new Statistics(n, min, max, sum, sum, mean, m2);
+    }
+
+    private Statistics computeDoubles() {
+        int n = high - low;
+        if (n == 0) return Statistics.empty();
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = low; i < high; ++i) {
+            double v = doubles[i];
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+            sum += v;
+        }
+        double mean = sum / n;
+        double m2 = 0;
+        for (int i = low; i < high; ++i) {
+            double d = doubles[i] - mean;
+            m2 += d * d;
+        }
+        return new Statistics(n, min, max, sum, mean, m2);
+    }
+
+    public static Statistics statsArray(int[] array) {
+        return ForkJoinPool.commonPool().invoke(new StatisticsTask(array, 0, array.length));
+    }
+
+    public static Statistics statsArray(double[] array) {
+        return ForkJoinPool.commonPool().invoke(new StatisticsTask(array, 0, array.length));
+    }
+}
@@ -0,0 +1,3 @@
+public interface TaskFunction<A, T> {
+    T call(A argument) throws Exception;
+}
@@ -0,0 +1,43 @@
+/**
+ * SpinLatch, SpinBarrier 에서 기다리는 방법
+ *
+ * CountDownLatch, CyclicBarrier 는 항상 스레드를 park 하므로 깨어나는 데 수십 마이크로초가 걸린다.
+ * 기다리는 시간이 짧고 코어가 남는다면 spin 하는 편이 훨씬 빨리 깨어난다.
+ */
+public enum WaitStrategy {
+
+    // Thread.onSpinWait 로 계속 돈다. 가장 빨리 깨어나지만 기다리는 동안 코어 하나를 다 쓴다.
+    BUSY_SPIN,
+
+    // 잠깐 spin 하다가 Thread.yield 로 다른 스레드에게 코어를 양보하며 돈다.
+    SPIN_THEN_YIELD,
+
+    // spin, yield 후에도 안 끝나면 park 한다. 오래 기다려도 코어를 쓰지 않는다.
+    SPIN_THEN_PARK;
+
+    // 코어가 하나면 spin 하는 동안 깨워줄 스레드가 돌 수 없으므로 바로 다음 단계로 넘어간다. (j.u.c 의 SynchronousQueue 와 같은 방식)
+    private static final int SPIN_TRIES = Runtime.getRuntime().availableProcessors() > 1 ? 1000 : 0;
+    private static final int YIELD_TRIES = 100;
+
+    /**
+     * 대기 루프를 한 바퀴 쉰다. true 를 리턴하면 호출한 쪽이 park 해야 한다.
+     */
+    boolean idle(int iteration) {
+        if (this == BUSY_SPIN || iteration < SPIN_TRIES) {
+            Thread.onSpinWait();
+            return false;
+        }
+        if (this == SPIN_THEN_YIELD || iteration < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 대기 루프의 다음 iteration, BUSY_SPIN 으로 오래 기다려도 int 가 넘쳐서 다시 spin 구간으로 돌아가지 않도록 멈춘다.
+     */
+    static int next(int iteration) {
+        return iteration == Integer.MAX_VALUE ? iteration : iteration + 1;
+    }
+}
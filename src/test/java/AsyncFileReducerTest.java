@@ -0,0 +1,176 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 파일마다 스레드를 잡고 블로킹 read 를 하는 대신 AsynchronousFileChannel 로 여러 파일의 read 를 동시에 걸어두고
+ * 읽어온 청크의 계산은 ForkJoinPool(StatisticsTask) 에 맡긴다.
+ */
+public class AsyncFileReducerTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("async-file-reducer");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("여러 파일을 동시에 읽어 파일별 CRC32 와 int 통계를 구한다.")
+    void testReduceFiles() throws Exception {
+        Random random = new Random(42);
+        List<Path> files = new ArrayList<>();
+        List<int[]> contents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int[] values = random.ints(random.nextInt(100_000)).toArray();
+            files.add(write("data-" + i, values));
+            contents.add(values);
+        }
+
+        AsyncFileReducer reducer = new AsyncFileReducer(16, 64 * 1024);
+        List<CompletableFuture<AsyncFileReducer.FileDigest>> futures = new ArrayList<>();
+        for (Path file : files) {
+            futures.add(reducer.submit(file));
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            AsyncFileReducer.FileDigest digest = futures.get(i).get(30, TimeUnit.SECONDS);
+            Statistics expected = StatisticsTask.statsArray(contents.get(i));
+
+            Assertions.assertEquals(crc32(files.get(i)), digest.getCrc32());
+            Assertions.assertEquals(contents.get(i).length * 4L, digest.getSize());
+            Assertions.assertEquals(expected.getCount(), digest.getStatistics().getCount());
+            Assertions.assertEquals(expected.getLongSum(), digest.getStatistics().getLongSum());
+            Assertions.assertEquals(expected.getMin(), digest.getStatistics().getMin());
+            Assertions.assertEquals(expected.getMax(), digest.getStatistics().getMax());
+        }
+    }
+
+    @Test
+    @DisplayName("reduceAll 은 모든 파일의 통계를 하나로 합친다.")
+    void testReduceAll() throws Exception {
+        List<Path> files = new ArrayList<>();
+        long sum = 0;
+        for (int i = 0; i < 50; i++) {
+            int[] values = new int[10_000];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = i * values.length + j;
+                sum += values[j];
+            }
+            files.add(write("data-" + i, values));
+        }
+
+        Statistics total = new AsyncFileReducer(4, 4096).reduceAll(files).get(30, TimeUnit.SECONDS);
+        System.out.println(total);
+
+        Assertions.assertEquals(500_000, total.getCount());
+        Assertions.assertEquals(sum, total.getLongSum());
+        Assertions.assertEquals(0, total.getMin());
+        Assertions.assertEquals(499_999, total.getMax());
+    }
+
+    @Test
+    @DisplayName("4바이트로 나누어 떨어지지 않는 꼬리는 체크섬에만 포함되고, 빈 파일도 처리된다.")
+    void testTrailingBytesAndEmptyFile() throws Exception {
+        Path odd = dir.resolve("odd");
+        Files.write(odd, new byte[]{0, 0, 0, 7, 0, 0, 0, 9, 1, 2, 3}); // int 2개 + 3바이트
+        Path empty = dir.resolve("empty");
+        Files.write(empty, new byte[0]);
+
+        AsyncFileReducer reducer = new AsyncFileReducer(2, 8); // 청크가 작아서 꼬리가 다음 read 로 넘어간다.
+        AsyncFileReducer.FileDigest oddDigest = reducer.submit(odd).get(10, TimeUnit.SECONDS);
+        AsyncFileReducer.FileDigest emptyDigest = reducer.submit(empty).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(11, oddDigest.getSize());
+        Assertions.assertEquals(crc32(odd), oddDigest.getCrc32());
+        Assertions.assertEquals(2, oddDigest.getStatistics().getCount());
+        Assertions.assertEquals(16, oddDigest.getStatistics().getLongSum());
+        Assertions.assertEquals(0, emptyDigest.getSize());
+        Assertions.assertEquals(0, emptyDigest.getStatistics().getCount());
+    }
+
+    @Test
+    @DisplayName("콜백으로 결과를 받을 수 있고, 없는 파일은 ExceptionalCallback 으로 전달된다.")
+    void testCallback() throws Exception {
+        Path file = write("data", new int[]{1, 2, 3});
+        AsyncFileReducer reducer = new AsyncFileReducer(1, 1024);
+
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicReference<AsyncFileReducer.FileDigest> success = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        reducer.submit(file, digest -> { success.set(digest); done.countDown(); }, e -> done.countDown());
+        reducer.submit(dir.resolve("missing"), digest -> done.countDown(), e -> { error.set(e); done.countDown(); });
+
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(6, success.get().getStatistics().getLongSum());
+        Assertions.assertInstanceOf(NoSuchFileException.class, error.get());
+
+        // 실패한 파일의 버퍼도 반납되어 다음 파일을 읽을 수 있다.
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> reducer.submit(dir.resolve("missing")).get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(NoSuchFileException.class, e.getCause());
+        Assertions.assertEquals(3, reducer.submit(file).get(10, TimeUnit.SECONDS).getStatistics().getCount());
+    }
+
+    @Test
+    @DisplayName("버퍼 하나 뒤에 열 수 없는 파일이 많이 대기해도 스택이 깊어지지 않고 모두 실패로 완료된다.")
+    void testManyMissingFilesBehindOneSlot() throws Exception {
+        Path big = write("big", new Random(42).ints(2_000_000).toArray()); // 8MB, 4KB 씩 읽는 동안 아래 파일들이 대기열에 쌓인다.
+        Path small = write("small", new int[]{1, 2, 3});
+        AsyncFileReducer reducer = new AsyncFileReducer(1, 4096);
+
+        CompletableFuture<AsyncFileReducer.FileDigest> bigDigest = reducer.submit(big);
+        List<CompletableFuture<AsyncFileReducer.FileDigest>> missing = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            missing.add(reducer.submit(dir.resolve("missing-" + i)));
+        }
+        CompletableFuture<AsyncFileReducer.FileDigest> smallDigest = reducer.submit(small);
+
+        Assertions.assertEquals(2_000_000, bigDigest.get(30, TimeUnit.SECONDS).getStatistics().getCount());
+        for (CompletableFuture<AsyncFileReducer.FileDigest> f : missing) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> f.get(30, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(NoSuchFileException.class, e.getCause());
+        }
+        Assertions.assertEquals(6, smallDigest.get(30, TimeUnit.SECONDS).getStatistics().getLongSum());
+    }
+
+    private Path write(String name, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 4);
+        buffer.asIntBuffer().put(values);
+        Path file = dir.resolve(name);
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private static long crc32(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(file));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ExecutorsTest 의 스레드풀은 모두 FIFO 라서 제출 순서대로 실행된다.
+ * DeadlineExecutor 는 마감이 가장 이른 작업부터 실행하고, 마감이 지난 작업은 실행하지 않고 버린다.
+ */
+public class DeadlineExecutorTest {
+
+    @Test
+    @DisplayName("제출 순서와 상관없이 마감이 이른 작업부터 실행된다.")
+    void testEarliestDeadlineFirst() throws Exception {
+        try (DeadlineExecutor executor = new DeadlineExecutor(1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch gate = new CountDownLatch(1);
+            executor.submit(() -> {
+                started.countDown();
+                gate.await(); // 워커를 잡아두고 그 사이 작업을 쌓는다.
+                return null;
+            });
+            started.await();
+
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            int[] deadlineSeconds = {50, 10, 40, 20, 30};
+            for (int seconds : deadlineSeconds) {
+                futures.add(executor.submit(() -> {
+                    order.add(seconds);
+                    return seconds;
+                }, Duration.ofSeconds(seconds)));
+            }
+            futures.add(executor.submit(() -> {
+                order.add(0); // 마감이 없는 작업은 가장 마지막
+                return 0;
+            }));
+            gate.countDown();
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(List.of(10, 20, 30, 40, 50, 0), order);
+        }
+    }
+
+    @Test
+    @DisplayName("기다리는 동안 마감이 지난 작업은 실행하지 않고 TimeoutException 으로 실패한다.")
+    void testExpiredWhileQueued() throws Exception {
+        try (DeadlineExecutor executor = new DeadlineExecutor(1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            executor.submit(() -> {
+                started.countDown();
+                Thread.sleep(200);
+                return null;
+            });
+            started.await(); // 마감이 없는 작업은 가장 뒤로 가므로 워커가 먼저 잡을 때까지 기다린다.
+
+            AtomicInteger executed = new AtomicInteger();
+            CompletableFuture<Integer> late = executor.submit(executed::incrementAndGet, Duration.ofMillis(50));
+            CompletableFuture<Integer> onTime = executor.submit(executed::incrementAndGet, Duration.ofSeconds(10));
+
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> late.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TimeoutException.class, e.getCause());
+            Assertions.assertEquals(1, onTime.get(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, executed.get());
+            Assertions.assertEquals(1, executor.getExpiredCount());
+        }
+    }
+
+    @Test
+    @DisplayName("이미 마감이 지난 작업은 대기열에 넣지 않고 바로 실패한다.")
+    void testAlreadyExpired() throws Exception {
+        try (DeadlineExecutor executor = new DeadlineExecutor(1)) {
+            CompletableFuture<String> future = executor.submitWithDeadline(() -> "never", System.nanoTime() - 1);
+
+            Assertions.assertTrue(future.isCompletedExceptionally());
+            Assertions.assertEquals(0, executor.getQueueSize());
+        }
+    }
+
+    @Test
+    @DisplayName("shutdown 이후에는 새 작업을 거절하고, 대기열에 남은 작업은 모두 처리한다.")
+    void testShutdown() throws Exception {
+        DeadlineExecutor executor = new DeadlineExecutor(2);
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> {
+                Thread.sleep(1);
+                return executed.incrementAndGet();
+            });
+        }
+        executor.close();
+
+        Assertions.assertEquals(100, executed.get());
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "late"));
+    }
+
+    @Test
+    @DisplayName("과부하 상황에서 FIFO 는 마감이 지난 요청도 모두 처리하지만, DeadlineExecutor 는 버리고 남은 요청을 제시간에 처리한다.")
+    void testOverloadShedding() throws Exception {
+        int requests = 200;
+        Duration timeout = Duration.ofMillis(100);
+        // 작업 하나에 2ms, 워커 2개 -> 100ms 안에 처리할 수 있는 양은 약 100개
+
+        ExecutorService fifo = Executors.newFixedThreadPool(2);
+        AtomicInteger fifoLate = new AtomicInteger();
+        List<CompletableFuture<Void>> fifoFutures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            fifoFutures.add(CompletableFuture.runAsync(() -> {
+                sleep(2);
+                if (System.nanoTime() > deadline) fifoLate.incrementAndGet(); // 클라이언트는 이미 포기한 응답
+            }, fifo));
+        }
+        CompletableFuture.allOf(fifoFutures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        fifo.shutdown();
+
+        AtomicInteger edfLate = new AtomicInteger();
+        AtomicInteger edfOnTime = new AtomicInteger();
+        try (DeadlineExecutor edf = new DeadlineExecutor(2)) {
+            List<CompletableFuture<Void>> edfFutures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                long deadline = System.nanoTime() + timeout.toNanos();
+                edfFutures.add(edf.submitWithDeadline(() -> {
+                    sleep(2);
+                    if (System.nanoTime() > deadline) edfLate.incrementAndGet();
+                    else edfOnTime.incrementAndGet();
+                    return null;
+                }, deadline));
+            }
+            CompletableFuture.allOf(edfFutures.toArray(new CompletableFuture[0]))
+                    .exceptionally(t -> null)
+                    .get(30, TimeUnit.SECONDS);
+
+            System.out.println("FIFO late=" + fifoLate.get() + "/" + requests
+                    + ", EDF onTime=" + edfOnTime.get() + ", late=" + edfLate.get() + ", expired=" + edf.getExpiredCount());
+            Assertions.assertEquals(requests, edfOnTime.get() + edfLate.get() + edf.getExpiredCount());
+            // 마감 직전에 시작한 몇 개만 늦을 수 있다.
+            Assertions.assertTrue(edfLate.get() < fifoLate.get() / 10, "edfLate=" + edfLate.get() + ", fifoLate=" + fifoLate.get());
+        }
+    }
+
+    @Test
+    @DisplayName("작업이 인터럽트 상태를 남겨도 워커는 죽지 않고 다음 작업을 실행한다.")
+    void testInterruptedTaskKeepsWorker() throws Exception {
+        try (DeadlineExecutor executor = new DeadlineExecutor(1)) {
+            CompletableFuture<Boolean> interrupting = executor.submit(() -> {
+                Thread.currentThread().interrupt(); // catch 후 인터럽트 상태를 되살리는 관용구와 같다.
+                return true;
+            });
+            Assertions.assertTrue(interrupting.get(5, TimeUnit.SECONDS));
+            // 다음 작업은 인터럽트 상태를 물려받지 않는다.
+            Assertions.assertFalse(executor.submit(() -> Thread.currentThread().isInterrupted()).get(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(0, executor.getQueueSize());
+        }
+    }
+
+    @Test
+    @DisplayName("아주 긴 timeout 은 넘쳐서 맨 앞으로 가지 않고 마감 없는 작업 바로 앞에 놓인다.")
+    void testHugeTimeout() throws Exception {
+        try (DeadlineExecutor executor = new DeadlineExecutor(1)) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch gate = new CountDownLatch(1);
+            executor.submit(() -> {
+                started.countDown();
+                gate.await();
+                return null;
+            });
+            started.await();
+
+            List<String> order = new CopyOnWriteArrayList<>();
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> order.add("none")));
+            futures.add(executor.submit(() -> order.add("huge"), Duration.ofSeconds(Long.MAX_VALUE)));
+            futures.add(executor.submit(() -> order.add("long"), Duration.ofNanos(Long.MAX_VALUE)));
+            futures.add(executor.submit(() -> order.add("10s"), Duration.ofSeconds(10)));
+            gate.countDown();
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(List.of("10s", "huge", "long", "none"), order);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * newSingleThreadExecutor 는 전체 작업의 순서를 보장하지만, 실제로는 키(ex. 계좌)별 순서만 필요한 경우가 많다.
+ * KeyedSerialExecutor 는 키별 순서를 보장하면서 다른 키의 작업은 공용 스레드풀에서 병렬로 처리한다.
+ */
+public class KeyedSerialExecutorTest {
+
+    @Test
+    @DisplayName("같은 키의 작업은 제출한 순서대로, 동시에 실행되지 않는다.")
+    void testOrderingPerKey() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+
+        int keys = 16;
+        int tasksPerKey = 10_000;
+        ConcurrentHashMap<String, List<Integer>> results = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlapped = new AtomicInteger();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        for (int i = 0; i < tasksPerKey; i++) {
+            for (int k = 0; k < keys; k++) {
+                String key = "account-" + k;
+                int seq = i;
+                futures.add(executor.submit(key, () -> {
+                    AtomicInteger r = running.computeIfAbsent(key, x -> new AtomicInteger());
+                    if (r.incrementAndGet() != 1) overlapped.incrementAndGet(); // 같은 키가 동시에 실행되면 안된다.
+                    results.computeIfAbsent(key, x -> new ArrayList<>()).add(seq); // 같은 키는 하나씩 실행되므로 ArrayList 여도 안전
+                    r.decrementAndGet();
+                    return seq;
+                }));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(0, overlapped.get());
+        for (int k = 0; k < keys; k++) {
+            List<Integer> seqs = results.get("account-" + k);
+            Assertions.assertEquals(tasksPerKey, seqs.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                Assertions.assertEquals(i, seqs.get(i));
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("다른 키의 작업은 공용 스레드풀에서 동시에 실행된다.")
+    void testParallelismAcrossKeys() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        KeyedSerialExecutor<Integer> executor = new KeyedSerialExecutor<>(pool);
+
+        // 4개 키의 작업이 모두 동시에 실행 중이어야 latch 가 열린다.
+        CountDownLatch allRunning = new CountDownLatch(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int k = 0; k < 4; k++) {
+            executor.execute(k, () -> {
+                allRunning.countDown();
+                try {
+                    allRunning.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("작업이 모두 끝난 키의 메일박스는 제거된다.")
+    void testMailboxReclaimed() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        KeyedSerialExecutor<Integer> executor = new KeyedSerialExecutor<>(pool);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int k = 0; k < 1000; k++) {
+            int key = k;
+            futures.add(executor.submit(key, () -> key));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        // 마지막 작업이 끝난 직후 메일박스를 제거하므로 잠깐 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, executor.activeKeys());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("작업에서 예외가 발생해도 같은 키의 다음 작업은 계속 실행된다.")
+    void testExceptionDoesNotStopKey() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+
+        CompletableFuture<String> failed = executor.submit("key", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<String> next = executor.submit("key", () -> "next");
+
+        Assertions.assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(failed.isCompletedExceptionally());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("스레드풀이 거절하면 예외를 던지고 키가 막히지 않는다.")
+    void testRejectedSchedule() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        AtomicBoolean reject = new AtomicBoolean(true);
+        Executor rejectOnce = task -> {
+            if (reject.getAndSet(false)) {
+                throw new RejectedExecutionException("full");
+            }
+            pool.execute(task);
+        };
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(rejectOnce);
+
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.submit("key", () -> "rejected"));
+        Assertions.assertEquals(0, executor.activeKeys()); // 거절된 작업은 되돌려져 메일박스가 남지 않는다.
+
+        Assertions.assertEquals("next", executor.submit("key", () -> "next").get(5, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("이어서 처리하려고 다시 제출한 drain 이 거절되면 남은 작업은 그 스레드에서 이어서 처리한다.")
+    void testRejectedReschedule() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        AtomicBoolean reject = new AtomicBoolean();
+        Executor rejecting = task -> {
+            if (reject.get()) {
+                throw new RejectedExecutionException("shutting down");
+            }
+            pool.execute(task);
+        };
+        KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(rejecting);
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute("key", () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) { // 한 번에 처리하는 64개보다 많아서 drain 을 다시 제출해야 한다.
+            int seq = i;
+            futures.add(executor.submit("key", () -> seq));
+        }
+        reject.set(true);
+        blocked.countDown();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // 마지막 작업이 끝난 직후 메일박스를 제거하므로 잠깐 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, executor.activeKeys());
+        pool.shutdown();
+    }
+}
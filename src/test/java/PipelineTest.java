@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExecutorsTest#testBlockingQueue 처럼 ArrayBlockingQueue 로 생산자와 소비자를 직접 잇는 대신
+ * Flow 기반 Pipeline 으로 parse -> transform -> aggregate 단계를 겹쳐서 실행한다.
+ */
+public class PipelineTest {
+
+    @Test
+    @DisplayName("parse -> transform -> aggregate 파이프라인, 인접한 동기 단계는 하나로 합쳐진다.")
+    void testPipeline() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             SubmissionPublisher<String> source = new SubmissionPublisher<>(executor, 256)) {
+
+            Pipeline<Long> pipeline = Pipeline.from(source, executor)
+                    .map("parse", Integer::parseInt)
+                    .mapAsync("square", x -> (long) x * x, 4, 256)
+                    .map("even", x -> x % 2 == 0 ? x : null); // square 단계에 합쳐진다.
+            CompletableFuture<Long> result = pipeline.reduce(0L, Long::sum);
+
+            int items = 100_000;
+            long expected = 0;
+            for (int i = 1; i <= items; i++) {
+                source.submit(String.valueOf(i)); // 버퍼가 가득 차면 여기서 기다린다.
+                if (i % 2 == 0) expected += (long) i * i;
+            }
+            source.close();
+
+            Assertions.assertEquals(expected, result.get(30, TimeUnit.SECONDS));
+
+            List<Pipeline.StageMetrics> metrics = pipeline.metrics();
+            metrics.forEach(System.out::println);
+            Assertions.assertEquals(3, metrics.size());
+            Assertions.assertEquals("parse", metrics.get(0).getName());
+            Assertions.assertEquals("square+even", metrics.get(1).getName());
+            Assertions.assertEquals(items, metrics.get(1).getCount());
+            Assertions.assertEquals(items / 2, metrics.get(2).getCount());
+        }
+    }
+
+    @Test
+    @DisplayName("소비자가 느리면 생산자가 기다리므로 단계 사이에 쌓이는 아이템 수가 버퍼 크기로 제한된다.")
+    void testBackpressure() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             SubmissionPublisher<Integer> source = new SubmissionPublisher<>(executor, 16)) {
+
+            AtomicLong produced = new AtomicLong();
+            AtomicLong maxLag = new AtomicLong();
+
+            CompletableFuture<Long> result = Pipeline.from(source, executor)
+                    .mapAsync("transform", x -> x + 1, 2, 16)
+                    .reduce(0L, (acc, x) -> {
+                        maxLag.accumulateAndGet(produced.get() - acc, Math::max); // 생산됐지만 아직 소비되지 않은 수
+                        try {
+                            Thread.sleep(0, 100_000); // 느린 소비자
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return acc + 1;
+                    }, 16);
+
+            for (int i = 0; i < 2_000; i++) {
+                source.submit(i);
+                produced.incrementAndGet();
+            }
+            source.close();
+
+            Assertions.assertEquals(2_000, result.get(60, TimeUnit.SECONDS));
+            System.out.println("max lag=" + maxLag.get());
+            Assertions.assertTrue(maxLag.get() < 200, "maxLag=" + maxLag.get());
+        }
+    }
+
+    @Test
+    @DisplayName("단계에서 예외가 발생하면 결과 future 가 예외로 완료된다.")
+    void testError() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             SubmissionPublisher<Integer> source = new SubmissionPublisher<>(executor, 16)) {
+
+            CompletableFuture<Integer> result = Pipeline.from(source, executor)
+                    .mapAsync("divide", x -> 100 / x, 2, 16)
+                    .reduce(0, Integer::sum);
+
+            source.submit(1);
+            source.submit(0);
+            source.close();
+
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(ArithmeticException.class, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * scheduleAtFixedRate 는 타이머 스레드 하나와 고정 주기에 처리량이 묶인다.
+ * RateLimiter 는 CAS 만으로 permit 을 나눠주므로 제한마다 스케줄러 스레드를 둘 필요가 없다.
+ */
+public class RateLimiterTest {
+
+    @Test
+    @DisplayName("smooth limiter 는 1/rate 간격마다 permit 을 하나씩 내어준다.")
+    void testSmooth() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(10, 1, now::get); // 100ms 마다 1개
+
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire()); // 아직 100ms 가 지나지 않았다.
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10)); // 오래 쉬어도 smooth 는 1개만 모아둔다.
+        Assertions.assertTrue(limiter.tryAcquire());
+        Assertions.assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("bursty limiter 는 쉬는 동안 maxBurst 개까지 모아두었다가 한 번에 내어준다.")
+    void testBursty() {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(10, 5, now::get);
+
+        Assertions.assertTrue(limiter.tryAcquire(5));
+        Assertions.assertFalse(limiter.tryAcquire());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(300)); // 3개 충전
+        Assertions.assertFalse(limiter.tryAcquire(4));
+        Assertions.assertTrue(limiter.tryAcquire(3));
+        Assertions.assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 tryAcquire 해도 버킷 크기만큼만 성공한다.")
+    void testConcurrentTryAcquire() throws InterruptedException {
+        AtomicLong now = new AtomicLong();
+        RateLimiter limiter = new RateLimiter(1, 100, now::get); // 시간이 흐르지 않으니 100개만 성공해야 한다.
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch doneSignal = new CountDownLatch(threads);
+        AtomicInteger success = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire()) success.incrementAndGet();
+                }
+                doneSignal.countDown();
+            });
+        }
+        doneSignal.await();
+        executor.shutdown();
+
+        Assertions.assertEquals(100, success.get());
+    }
+
+    @Test
+    @DisplayName("acquire 는 permit 을 쓸 수 있을 때까지 가상 스레드를 park 한다.")
+    void testAcquireOnVirtualThreads() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.create(100); // 10ms 마다 1개
+        AtomicInteger acquired = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                executor.submit(() -> {
+                    limiter.acquire();
+                    return acquired.incrementAndGet();
+                });
+            }
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("50 permits at 100/s took " + elapsedMillis + "ms");
+
+        Assertions.assertEquals(50, acquired.get());
+        Assertions.assertTrue(elapsedMillis >= 480, "elapsed=" + elapsedMillis); // 첫 permit 은 바로, 나머지 49개는 10ms 간격
+    }
+
+    @Test
+    @DisplayName("timeout 안에 permit 을 받을 수 없으면 기다리지 않고 false 를 리턴한다.")
+    void testTryAcquireTimeout() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.create(1); // 1초에 1개
+
+        Assertions.assertTrue(limiter.tryAcquire(1, 0, TimeUnit.MILLISECONDS));
+        long start = System.nanoTime();
+        Assertions.assertFalse(limiter.tryAcquire(1, 100, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    @DisplayName("RateLimitedExecutor 는 제출 속도를 제한하고, maxWait 안에 permit 을 받지 못하면 거절한다.")
+    void testRateLimitedExecutor() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger executed = new AtomicInteger();
+
+        RateLimitedExecutor paced = new RateLimitedExecutor(pool, RateLimiter.create(200), Duration.ofSeconds(1));
+        long start = System.nanoTime();
+        for (int i = 0; i < 21; i++) {
+            paced.execute(executed::incrementAndGet);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("21 submissions at 200/s took " + elapsedMillis + "ms");
+        Assertions.assertTrue(elapsedMillis >= 95, "elapsed=" + elapsedMillis); // 5ms 간격으로 20번 기다린다.
+
+        RateLimitedExecutor strict = new RateLimitedExecutor(pool, RateLimiter.create(1), Duration.ZERO);
+        strict.execute(executed::incrementAndGet);
+        Assertions.assertThrows(RejectedExecutionException.class, () -> strict.execute(executed::incrementAndGet));
+
+        pool.shutdown();
+        Assertions.assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(22, executed.get());
+    }
+}
@@ -0,0 +1,163 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CallbackFutureTask 는 제출할 때마다 FutureTask, 람다, 콜백 객체를 새로 만든다.
+ * RecyclableTaskPool 은 작업 객체를 재사용해서 정상 상태에서 제출 경로가 힙 할당을 하지 않는다.
+ */
+public class RecyclableTaskTest {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Executor DIRECT = Runnable::run; // 호출한 스레드에서 바로 실행
+
+    private static final AtomicLong SUM = new AtomicLong();
+    private static final AtomicInteger ERRORS = new AtomicInteger();
+
+    // 캡처하지 않는 람다는 한 번만 만들어진다.
+    private static final TaskFunction<String, String> FUNCTION = s -> s;
+    private static final SuccessCallback<String> ON_SUCCESS = s -> SUM.addAndGet(s.length());
+    private static final ExceptionalCallback ON_ERROR = e -> ERRORS.incrementAndGet();
+
+    @Test
+    @DisplayName("실행이 끝난 작업은 풀에 돌아가 다음 제출에 재사용된다.")
+    void testRecycle() {
+        RecyclableTaskPool<String, String> pool = new RecyclableTaskPool<>(FUNCTION, ON_SUCCESS, ON_ERROR, 16);
+
+        RecyclableTask<String, String> first = pool.acquire("a");
+        first.run();
+        RecyclableTask<String, String> second = pool.acquire("b");
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, pool.createdCount());
+    }
+
+    @Test
+    @DisplayName("함수에서 예외가 발생하면 ExceptionalCallback 이 호출되고 작업은 그대로 재사용된다.")
+    void testErrorCallback() {
+        AtomicInteger errors = new AtomicInteger();
+        RecyclableTaskPool<Integer, Integer> pool = new RecyclableTaskPool<>(
+                i -> { if (i < 0) throw new IllegalArgumentException("negative"); return i; },
+                System.out::println,
+                e -> errors.incrementAndGet(),
+                16);
+
+        pool.execute(DIRECT, -1);
+        pool.execute(DIRECT, 1);
+
+        Assertions.assertEquals(1, errors.get());
+        Assertions.assertEquals(1, pool.createdCount());
+    }
+
+    @Test
+    @DisplayName("호출한 스레드에서 실행된 콜백이 예외를 던지면 UncaughtExceptionHandler 로 넘어가고 작업은 한 번만 반환된다.")
+    void testCallbackThrowsOnCallerThread() {
+        // 종료된 스레드풀에 후속 작업을 넣는 콜백처럼 RejectedExecutionException 을 던져도 제출이 거절된 것으로 보면 안된다.
+        for (RuntimeException thrown : new RuntimeException[]{
+                new IllegalStateException("callback"), new RejectedExecutionException("follow-up rejected")}) {
+            RecyclableTaskPool<String, String> pool = new RecyclableTaskPool<>(
+                    FUNCTION,
+                    s -> { throw thrown; },
+                    ON_ERROR,
+                    16);
+
+            List<Throwable> uncaught = new ArrayList<>();
+            Thread current = Thread.currentThread();
+            Thread.UncaughtExceptionHandler handler = current.getUncaughtExceptionHandler();
+            current.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+            try {
+                pool.execute(DIRECT, "a");
+            } finally {
+                current.setUncaughtExceptionHandler(handler);
+            }
+            Assertions.assertEquals(List.of(thrown), uncaught);
+            assertReleasedOnce(pool);
+        }
+    }
+
+    @Test
+    @DisplayName("실행한 뒤에 예외를 던지는 executor 여도 작업은 한 번만 반환된다.")
+    void testExecutorThrowsAfterRun() {
+        RecyclableTaskPool<String, String> pool = new RecyclableTaskPool<>(FUNCTION, ON_SUCCESS, ON_ERROR, 16);
+        Executor runThenReject = task -> {
+            task.run();
+            throw new RejectedExecutionException("rejected after run");
+        };
+
+        Assertions.assertThrows(RejectedExecutionException.class, () -> pool.execute(runThenReject, "a"));
+        assertReleasedOnce(pool);
+    }
+
+    // 두 번 반환되었다면 같은 객체가 free list 에 두 번 들어가 두 제출이 같은 작업의 인자를 덮어쓴다.
+    private static void assertReleasedOnce(RecyclableTaskPool<String, String> pool) {
+        RecyclableTask<String, String> first = pool.acquire("b");
+        RecyclableTask<String, String> second = pool.acquire("c");
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(2, pool.createdCount());
+    }
+
+    @Test
+    @DisplayName("스레드풀에서 실행해도 만들어지는 작업 수는 동시에 떠 있는 작업 수를 넘지 않는다.")
+    void testThreadPool() throws InterruptedException {
+        RecyclableTaskPool<String, String> pool = new RecyclableTaskPool<>(FUNCTION, ON_SUCCESS, ON_ERROR, 1024);
+        // ArrayBlockingQueue 는 LinkedBlockingQueue 와 달리 노드를 만들지 않는다.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        SUM.set(0);
+        int tasks = 1_000_000;
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(executor, "x");
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        System.out.println("tasks=" + tasks + ", created=" + pool.createdCount());
+        Assertions.assertEquals(tasks, SUM.get());
+        Assertions.assertTrue(pool.createdCount() < 1024, "created=" + pool.createdCount());
+    }
+
+    @Test
+    @DisplayName("정상 상태의 제출 경로는 할당하지 않는다. (CallbackFutureTask 와 작업당 할당 바이트 비교)")
+    void testAllocationRate() {
+        RecyclableTaskPool<String, String> pool = new RecyclableTaskPool<>(FUNCTION, ON_SUCCESS, ON_ERROR, 16);
+        int tasks = 1_000_000;
+        String argument = "x";
+
+        // JIT 워밍업
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(DIRECT, argument);
+            DIRECT.execute(new CallbackFutureTask<>(() -> argument, ON_SUCCESS, ON_ERROR));
+        }
+
+        long before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(DIRECT, argument);
+        }
+        long pooledBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - before;
+
+        before = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < tasks; i++) {
+            DIRECT.execute(new CallbackFutureTask<>(() -> argument, ON_SUCCESS, ON_ERROR));
+        }
+        long futureTaskBytes = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - before;
+
+        System.out.println("RecyclableTask bytes/task=" + (double) pooledBytes / tasks
+                + ", CallbackFutureTask bytes/task=" + (double) futureTaskBytes / tasks);
+        Assertions.assertTrue(pooledBytes < tasks / 100, "pooledBytes=" + pooledBytes); // 측정 자체의 할당만 허용
+        Assertions.assertTrue(pooledBytes < futureTaskBytes);
+    }
+}
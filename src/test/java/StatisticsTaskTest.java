@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * 여러 번 배열을 읽는 대신 StatisticsTask 로 한 번에 count/min/max/mean/variance 를 구한다.
+ */
+public class StatisticsTaskTest {
+
+    @Test
+    @DisplayName("작은 배열의 통계를 구할 수 있다.")
+    void testSmallArray() {
+        int[] array = {1,2,5,6,7,4,2,6,7,2,3,8,1,100,500};
+        Statistics stats = StatisticsTask.statsArray(array);
+        System.out.println(stats);
+
+        Assertions.assertEquals(15, stats.getCount());
+        Assertions.assertEquals(1, stats.getMin());
+        Assertions.assertEquals(500, stats.getMax());
+        Assertions.assertEquals(Sum.sumArray(array), stats.getLongSum());
+        Assertions.assertEquals(naiveVariance(array), stats.getVariance(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("여러 구간으로 쪼개진 결과를 합쳐도 여러 번 읽어서 구한 값과 같다.")
+    void testLargeArray() {
+        int[] array = new Random(42).ints(1_000_000, -1000, 1000).toArray();
+        Statistics stats = StatisticsTask.statsArray(array);
+
+        Assertions.assertEquals(array.length, stats.getCount());
+        Assertions.assertEquals(-1000, stats.getMin());
+        Assertions.assertEquals(999, stats.getMax());
+        Assertions.assertEquals(naiveMean(array), stats.getMean(), 1e-9);
+        Assertions.assertEquals(naiveVariance(array), stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("값이 크고 분산이 작아도 편차 기준으로 합치기 때문에 자릿수 손실이 없다.")
+    void testNumericalStability() {
+        double[] array = new double[100_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = 1e9 + (i % 2 == 0 ? 1 : -1); // 평균 1e9, 분산 1
+        }
+        Statistics stats = StatisticsTask.statsArray(array);
+
+        Assertions.assertEquals(1e9, stats.getMean(), 1e-6);
+        Assertions.assertEquals(1.0, stats.getVariance(), 1e-9);
+        Assertions.assertThrows(IllegalStateException.class, stats::getLongSum); // double 배열은 정확한 합이 없다.
+    }
+
+    @Test
+    @DisplayName("int 배열의 합은 2^53 을 넘어도 long 으로 정확하다.")
+    void testExactIntSum() {
+        int[] array = new int[20_000_000];
+        long expected = 0;
+        for (int i = 0; i < array.length; i++) {
+            array[i] = Integer.MAX_VALUE - (i % 7); // 합이 약 4.3e16 > 2^53
+            expected += array[i];
+        }
+        Statistics stats = StatisticsTask.statsArray(array);
+
+        Assertions.assertTrue(expected > (1L << 53));
+        Assertions.assertEquals(expected, stats.getLongSum());
+    }
+
+    @Test
+    @DisplayName("빈 배열은 count 0, mean/variance NaN 이다.")
+    void testEmptyArray() {
+        Statistics stats = StatisticsTask.statsArray(new int[0]);
+
+        Assertions.assertEquals(0, stats.getCount());
+        Assertions.assertTrue(Double.isNaN(stats.getMean()));
+        Assertions.assertTrue(Double.isNaN(stats.getVariance()));
+    }
+
+    @Test
+    @DisplayName("한 번 읽기와 여러 번 읽기 비교")
+    void testSinglePassVsMultiPass() {
+        int[] array = new Random(7).ints(10_000_000).toArray(); // 40MB, 캐시보다 크다.
+
+        // 패스 수만 비교하도록 둘 다 한 스레드에서 같은 방식으로 돈다. (JIT 워밍업을 위해 한 번씩 먼저 돌린다)
+        sequentialMultiPass(array);
+        sequentialSinglePass(array);
+
+        long start = System.nanoTime();
+        double[] multi = sequentialMultiPass(array);
+        long multiPass = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        double[] single = sequentialSinglePass(array);
+        long singlePass = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Statistics stats = StatisticsTask.statsArray(array);
+        long parallelSinglePass = System.nanoTime() - start;
+
+        System.out.println("sequential multi pass=" + multiPass / 1_000_000 + "ms, sequential single pass=" + singlePass / 1_000_000
+                + "ms, StatisticsTask=" + parallelSinglePass / 1_000_000 + "ms");
+        Assertions.assertEquals(multi[0], single[0]);
+        Assertions.assertEquals(multi[1], single[1]);
+        Assertions.assertEquals(multi[0], stats.getMin());
+        Assertions.assertEquals(multi[1], stats.getMax());
+        Assertions.assertEquals(multi[3], stats.getVariance(), Math.abs(multi[3]) * 1e-9);
+    }
+
+    // sum, min, max, 분산을 각각 따로 읽는다. (4 패스)
+    private static double[] sequentialMultiPass(int[] array) {
+        long sum = 0;
+        for (int v : array) sum += v;
+        double mean = (double) sum / array.length;
+        int min = Integer.MAX_VALUE;
+        for (int v : array) min = Math.min(min, v);
+        int max = Integer.MIN_VALUE;
+        for (int v : array) max = Math.max(max, v);
+        double m2 = 0;
+        for (int v : array) m2 += (v - mean) * (v - mean);
+        return new double[]{min, max, mean, m2 / array.length};
+    }
+
+    // StatisticsTask 의 leaf 와 같은 방식을 배열 전체에 한 스레드로 적용한다. (캐시 크기 구간마다 두 번 읽으므로 메모리 패스는 1)
+    private static double[] sequentialSinglePass(int[] array) {
+        Statistics total = Statistics.empty();
+        for (int lo = 0; lo < array.length; lo += 8 * 1024) {
+            int hi = Math.min(array.length, lo + 8 * 1024);
+            total = total.combine(new StatisticsTask(array, lo, hi).compute());
+        }
+        return new double[]{total.getMin(), total.getMax(), total.getMean(), total.getVariance()};
+    }
+
+    private static double naiveMean(int[] array) {
+        long sum = 0;
+        for (int v : array) sum += v;
+        return (double) sum / array.length;
+    }
+
+    private static double naiveVariance(int[] array) {
+        double mean = naiveMean(array);
+        double m2 = 0;
+        for (int v : array) m2 += (v - mean) * (v - mean);
+        return m2 / array.length;
+    }
+}
@@ -0,0 +1,262 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CountDownLatch, CyclicBarrier 는 항상 park 하므로 깨어나는 데 오래 걸린다.
+ * SpinLatch, SpinBarrier 는 WaitStrategy 로 spin / yield / park 중 기다리는 방법을 고를 수 있다.
+ */
+public class WaitStrategyTest {
+
+    private static final boolean MULTI_CORE = Runtime.getRuntime().availableProcessors() > 1;
+
+    @Test
+    @DisplayName("SpinLatch 는 카운트가 0이 되면 기다리던 스레드를 모두 깨운다.")
+    void testSpinLatch() throws InterruptedException {
+        for (WaitStrategy strategy : strategies()) {
+            int workers = 8;
+            SpinLatch startSignal = new SpinLatch(1, strategy);
+            SpinLatch doneSignal = new SpinLatch(workers, strategy);
+            AtomicInteger started = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> {
+                    try {
+                        startSignal.await();
+                        started.incrementAndGet();
+                        doneSignal.countDown();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Thread.sleep(50); // SPIN_THEN_PARK 라면 이 사이에 park 된다.
+            Assertions.assertEquals(0, started.get());
+
+            startSignal.countDown();
+            Assertions.assertTrue(doneSignal.await(10, TimeUnit.SECONDS), strategy.name());
+            Assertions.assertEquals(workers, started.get());
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("SpinLatch 의 timeout 이 지나면 false 를 리턴한다.")
+    void testSpinLatchTimeout() throws InterruptedException {
+        for (WaitStrategy strategy : strategies()) {
+            SpinLatch latch = new SpinLatch(1, strategy);
+            Assertions.assertFalse(latch.await(20, TimeUnit.MILLISECONDS), strategy.name());
+            Assertions.assertEquals(1, latch.getCount());
+        }
+    }
+
+    @Test
+    @DisplayName("SpinBarrier 는 여러 세대에 걸쳐 모든 스레드가 도착한 뒤에만 다음으로 넘어간다.")
+    void testSpinBarrier() throws InterruptedException {
+        for (WaitStrategy strategy : strategies()) {
+            int parties = 4;
+            int generations = 1000;
+            SpinBarrier barrier = new SpinBarrier(parties, strategy);
+            AtomicInteger arrived = new AtomicInteger();
+            AtomicInteger violations = new AtomicInteger();
+            CountDownLatch doneSignal = new CountDownLatch(parties);
+
+            for (int p = 0; p < parties; p++) {
+                new Thread(() -> {
+                    try {
+                        for (int g = 1; g <= generations; g++) {
+                            arrived.incrementAndGet();
+                            barrier.await();
+                            // 이번 세대의 모든 스레드가 도착했어야 한다.
+                            if (arrived.get() < g * parties) violations.incrementAndGet();
+                            barrier.await(); // 다음 세대의 도착과 섞이지 않도록 한 번 더 맞춘다.
+                        }
+                    } catch (InterruptedException | BrokenBarrierException e) {
+                        violations.incrementAndGet();
+                    }
+                    doneSignal.countDown();
+                }).start();
+            }
+
+            Assertions.assertTrue(doneSignal.await(60, TimeUnit.SECONDS), strategy.name());
+            Assertions.assertEquals(0, violations.get(), strategy.name());
+            Assertions.assertEquals(parties * generations, arrived.get());
+        }
+    }
+
+    @Test
+    @DisplayName("SpinBarrier 에서 timeout 이 지나면 broken 이 되어 기다리던 스레드도 빠져나오고, reset 하면 다시 쓸 수 있다.")
+    void testSpinBarrierTimeout() throws Exception {
+        for (WaitStrategy strategy : strategies()) {
+            SpinBarrier barrier = new SpinBarrier(3, strategy);
+            AtomicReference<Throwable> waiterError = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Throwable t) {
+                    waiterError.set(t);
+                }
+            });
+            waiter.start();
+
+            // 세 번째 스레드가 오지 않으므로 timeout 된다.
+            Assertions.assertThrows(TimeoutException.class, () -> barrier.await(20, TimeUnit.MILLISECONDS), strategy.name());
+            waiter.join(5_000);
+            Assertions.assertInstanceOf(BrokenBarrierException.class, waiterError.get(), strategy.name());
+            Assertions.assertTrue(barrier.isBroken());
+            Assertions.assertThrows(BrokenBarrierException.class, barrier::await); // 이후에 도착해도 바로 실패한다.
+
+            barrier.reset();
+            Assertions.assertFalse(barrier.isBroken());
+            CountDownLatch passed = new CountDownLatch(2);
+            for (int p = 0; p < 2; p++) {
+                new Thread(() -> {
+                    try {
+                        barrier.await(5, TimeUnit.SECONDS);
+                        passed.countDown();
+                    } catch (Exception e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }).start();
+            }
+            barrier.await(5, TimeUnit.SECONDS); // 세 스레드가 모두 도착해야 통과한다.
+            Assertions.assertTrue(passed.await(5, TimeUnit.SECONDS), strategy.name());
+        }
+    }
+
+    @Test
+    @DisplayName("SpinBarrier 에서 기다리던 스레드가 인터럽트되면 InterruptedException 을 던지고 barrier 는 broken 이 된다.")
+    void testSpinBarrierInterrupt() throws InterruptedException {
+        for (WaitStrategy strategy : strategies()) {
+            SpinBarrier barrier = new SpinBarrier(2, strategy);
+            AtomicReference<Throwable> waiterError = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    barrier.await();
+                } catch (Throwable t) {
+                    waiterError.set(t);
+                }
+            });
+            waiter.start();
+            Thread.sleep(20);
+            waiter.interrupt();
+            waiter.join(5_000);
+
+            Assertions.assertInstanceOf(InterruptedException.class, waiterError.get(), strategy.name());
+            Assertions.assertTrue(barrier.isBroken());
+            Assertions.assertThrows(BrokenBarrierException.class, barrier::await);
+        }
+    }
+
+    @Test
+    @DisplayName("대기 루프의 iteration 은 int 가 넘치지 않고 멈춘다.")
+    void testIterationSaturates() {
+        Assertions.assertEquals(1, WaitStrategy.next(0));
+        Assertions.assertEquals(Integer.MAX_VALUE, WaitStrategy.next(Integer.MAX_VALUE - 1));
+        Assertions.assertEquals(Integer.MAX_VALUE, WaitStrategy.next(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("두 스레드가 번갈아 latch 를 여는 ping-pong 으로 깨어나는 시간을 CountDownLatch 와 비교한다.")
+    void testLatchWakeUpLatency() throws InterruptedException {
+        int rounds = 20_000;
+
+        CountDownLatch[] ping = new CountDownLatch[rounds];
+        CountDownLatch[] pong = new CountDownLatch[rounds];
+        for (int i = 0; i < rounds; i++) {
+            ping[i] = new CountDownLatch(1);
+            pong[i] = new CountDownLatch(1);
+        }
+        long elapsed = pingPong(rounds, i -> ping[i].countDown(), i -> ping[i].await(), i -> pong[i].countDown(), i -> pong[i].await());
+        System.out.println("CountDownLatch round trip=" + elapsed / rounds + "ns");
+
+        for (WaitStrategy strategy : strategies()) {
+            SpinLatch[] spinPing = new SpinLatch[rounds];
+            SpinLatch[] spinPong = new SpinLatch[rounds];
+            for (int i = 0; i < rounds; i++) {
+                spinPing[i] = new SpinLatch(1, strategy);
+                spinPong[i] = new SpinLatch(1, strategy);
+            }
+            elapsed = pingPong(rounds, i -> spinPing[i].countDown(), i -> spinPing[i].await(), i -> spinPong[i].countDown(), i -> spinPong[i].await());
+            System.out.println("SpinLatch(" + strategy + ") round trip=" + elapsed / rounds + "ns");
+        }
+    }
+
+    @Test
+    @DisplayName("두 스레드가 barrier 를 번갈아 통과하는 시간을 CyclicBarrier 와 비교한다.")
+    void testBarrierWakeUpLatency() throws InterruptedException {
+        int rounds = 20_000;
+
+        CyclicBarrier cyclicBarrier = new CyclicBarrier(2);
+        Step cyclicAwait = i -> {
+            try {
+                cyclicBarrier.await();
+            } catch (BrokenBarrierException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        long elapsed = pingPong(rounds, cyclicAwait, i -> {}, cyclicAwait, i -> {});
+        System.out.println("CyclicBarrier round trip=" + elapsed / rounds + "ns");
+
+        for (WaitStrategy strategy : strategies()) {
+            SpinBarrier barrier = new SpinBarrier(2, strategy);
+            Step spinAwait = i -> {
+                try {
+                    barrier.await();
+                } catch (BrokenBarrierException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+            elapsed = pingPong(rounds, spinAwait, i -> {}, spinAwait, i -> {});
+            System.out.println("SpinBarrier(" + strategy + ") round trip=" + elapsed / rounds + "ns");
+        }
+    }
+
+    // BUSY_SPIN 은 코어가 하나면 상대 스레드가 돌 기회가 없으므로 뺀다.
+    private static WaitStrategy[] strategies() {
+        return MULTI_CORE
+                ? WaitStrategy.values()
+                : new WaitStrategy[]{WaitStrategy.SPIN_THEN_YIELD, WaitStrategy.SPIN_THEN_PARK};
+    }
+
+    private interface Step {
+        void run(int round) throws InterruptedException;
+    }
+
+    /**
+     * main 스레드: signalA -> awaitB, 상대 스레드: awaitA -> signalB 를 rounds 번 반복한 시간(ns)
+     */
+    private static long pingPong(int rounds, Step signalA, Step awaitA, Step signalB, Step awaitB) throws InterruptedException {
+        Thread partner = new Thread(() -> {
+            try {
+                for (int i = 0; i < rounds; i++) {
+                    awaitA.run(i);
+                    signalB.run(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        partner.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            signalA.run(i);
+            awaitB.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        partner.join();
+        return elapsed;
+    }
+}